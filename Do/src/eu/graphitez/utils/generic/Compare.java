@@ -23,15 +23,126 @@
  */
 package eu.graphitez.utils.generic;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author Janis Schck - janis@schoeck-netz.de
  */
 public class Compare {
+	/**
+	 * Minimum number of elements for which the parallel comparisons split the
+	 * work. Smaller inputs are compared sequentially.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	/**
+	 * Minimum number of elements compared by a single parallel task.
+	 */
+	private static final int PARALLEL_CHUNK = 1 << 12;
+
+	/**
+	 * Type of the handles cached in {@link #COMPARE_TO}.
+	 */
+	private static final MethodType COMPARE_TO_TYPE = MethodType.methodType(int.class, Object.class, Object.class);
+
+	/**
+	 * Handle standing in for classes that cannot be compared. Always returns a
+	 * non-zero value.
+	 */
+	private static final MethodHandle INCOMPARABLE = MethodHandles
+			.dropArguments(MethodHandles.constant(int.class, 1), 0, Object.class, Object.class);
+
+	/**
+	 * Element matchers applied by the sequence comparisons. The swapped
+	 * variants are used when the arguments are passed in reverse order.
+	 */
+	private static final BiPredicate<Object, Object> COMPARABLES = Compare::comparablesUnchecked;
+	private static final BiPredicate<Object, Object> COMPARABLES_SWAPPED = (left, right) -> comparablesUnchecked(right,
+			left);
+	private static final BiPredicate<Object, Object> FORCED = Compare::forced;
+	private static final BiPredicate<Object, Object> FORCED_SWAPPED = (left, right) -> forced(right, left);
+	private static final BiPredicate<Object, Object> IDENTICAL = (left, right) -> left == right;
+	private static final BiPredicate<Object, Object> EQUAL = Objects::equals;
+
+	/**
+	 * Handles of the range based <code>Arrays.equals</code> overloads, which
+	 * are available and intrinsified from Java 9 on. <code>null</code>, if not
+	 * available, in which case the ranges are compared by a plain loop.
+	 */
+	private static final MethodHandle RANGE_EQUALS_INT = rangeEquals(int[].class);
+	private static final MethodHandle RANGE_EQUALS_LONG = rangeEquals(long[].class);
+	private static final MethodHandle RANGE_EQUALS_DOUBLE = rangeEquals(double[].class);
+	private static final MethodHandle RANGE_EQUALS_FLOAT = rangeEquals(float[].class);
+	private static final MethodHandle RANGE_EQUALS_SHORT = rangeEquals(short[].class);
+	private static final MethodHandle RANGE_EQUALS_CHAR = rangeEquals(char[].class);
+	private static final MethodHandle RANGE_EQUALS_BYTE = rangeEquals(byte[].class);
+
+	/**
+	 * Handle of <code>ByteBuffer.mismatch(ByteBuffer)</code>, which is
+	 * available and intrinsified from Java 11 on. <code>null</code>, if not
+	 * available, in which case buffers are compared eight bytes at a time.
+	 */
+	private static final MethodHandle BUFFER_MISMATCH = bufferMismatch();
+
+	/**
+	 * Number of bytes of a file read at once.
+	 */
+	private static final int READ_CHUNK = 1 << 17;
+
+	/**
+	 * Per-class cache of the handle invoking <code>compareTo(Object)</code>,
+	 * resolved once per class instead of once per comparison.
+	 */
+	private static final ClassValue<MethodHandle> COMPARE_TO = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			if (!Comparable.class.isAssignableFrom(type)) {
+				return INCOMPARABLE;
+			}
+			try {
+				Method compareTo = type.getMethod("compareTo", Object.class);
+				return MethodHandles.lookup().unreflect(compareTo).asType(COMPARE_TO_TYPE);
+			} catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
+				return INCOMPARABLE;
+			}
+		}
+	};
+
 	/**
 	 * Sequentially compares the elements within two Iterables with each other
 	 * by applying {@link Comparable#equals(Object)}. Nullary objects are also
@@ -45,23 +156,7 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <T extends Comparable<T>> boolean elements(Iterable<? extends T> left, Iterable<? extends T> right) {
-		Iterator<? extends T> iLeft = left.iterator();
-		Iterator<? extends T> iRight = right.iterator();
-
-		// pairwise comparison.
-		while (iLeft.hasNext() && iRight.hasNext()) {
-			T leftElement = iLeft.next();
-			T rightElement = iRight.next();
-
-			if (!Compare.comparables(leftElement, rightElement)) {
-				return false;
-			}
-		}
-
-		if (iLeft.hasNext() || iRight.hasNext()) {
-			return false;
-		}
-		return true;
+		return sequence(left, right, COMPARABLES);
 	}
 
 	/**
@@ -77,7 +172,7 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <T extends Comparable<T>, E extends T> boolean elements(E[] left, Iterable<? extends T> right) {
-		return Compare.elements(Arrays.asList(left), right);
+		return sequence(left, right, COMPARABLES);
 	}
 
 	/**
@@ -93,7 +188,7 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <T extends Comparable<T>, E extends T> boolean elements(Iterable<? extends T> left, E[] right) {
-		return Compare.elements(left, Arrays.asList(right));
+		return sequence(right, left, COMPARABLES_SWAPPED);
 	}
 
 	/**
@@ -109,7 +204,7 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <T extends Comparable<T>, E extends T, F extends T> boolean elements(E[] left, F[] right) {
-		return Compare.elements(Arrays.asList(left), Arrays.asList(right));
+		return sequence(left, right, COMPARABLES);
 	}
 
 	/**
@@ -135,26 +230,7 @@ public class Compare {
 	 * @return True, if the objects where a pairwise match.
 	 */
 	public static boolean elementsForced(Iterable<?> left, Iterable<?> right) {
-		Iterator<?> iLeft = left.iterator();
-		Iterator<?> iRight = right.iterator();
-
-		// pairwise comparison.
-		while (iLeft.hasNext() && iRight.hasNext()) {
-			Object leftElement = iLeft.next();
-			Object rightElement = iRight.next();
-			if (leftElement instanceof Comparable<?> && rightElement instanceof Comparable<?>) {
-				if (!asMatchingSuperclass(leftElement, rightElement)) {
-					return false;
-				}
-			} else if (leftElement != rightElement) {
-				return false;
-			}
-		}
-
-		if (iLeft.hasNext() || iRight.hasNext()) {
-			return false;
-		}
-		return true;
+		return sequence(left, right, FORCED);
 	}
 
 	/**
@@ -181,7 +257,7 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <L, R> boolean elementsForced(L[] left, Iterable<R> right) {
-		return Compare.elementsForced(Arrays.asList(left), right);
+		return sequence(left, right, FORCED);
 	}
 
 	/**
@@ -208,7 +284,7 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <L, R> boolean elementsForced(Iterable<L> left, R[] right) {
-		return Compare.elementsForced(left, Arrays.asList(right));
+		return sequence(right, left, FORCED_SWAPPED);
 	}
 
 	/**
@@ -235,7 +311,145 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <L, R> boolean elementsForced(L[] left, R[] right) {
-		return Compare.elementsForced(Arrays.asList(left), Arrays.asList(right));
+		return sequence(left, right, FORCED);
+	}
+
+	/**
+	 * Sequentially compares the elements of two Streams by applying
+	 * {@link Comparable#compareTo(Object)}, pulling one
+	 * element from each side at a time. The comparison stops at the first
+	 * mismatch, without consuming the remaining elements, which allows large
+	 * or unbounded sources to be compared lazily. Note that two equal unbounded
+	 * sources are never exhausted.<br>
+	 * Both streams are closed before this method returns.
+	 * 
+	 * @param left
+	 *            Left Stream.
+	 * @param right
+	 *            Right Stream.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>> boolean elements(Stream<? extends T> left, Stream<? extends T> right) {
+		try (Stream<? extends T> leftStream = left; Stream<? extends T> rightStream = right) {
+			return sequence(leftStream.spliterator(), rightStream.spliterator(), COMPARABLES);
+		}
+	}
+
+	/**
+	 * Sequentially compares the elements of two Spliterators by applying
+	 * {@link Comparable#compareTo(Object)}, pulling one
+	 * element from each side at a time. The comparison stops at the first
+	 * mismatch, without consuming the remaining elements, which allows large
+	 * or unbounded sources to be compared lazily. Note that two equal unbounded
+	 * sources are never exhausted.
+	 * 
+	 * @param left
+	 *            Left Spliterator.
+	 * @param right
+	 *            Right Spliterator.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>> boolean elements(Spliterator<? extends T> left,
+			Spliterator<? extends T> right) {
+		return sequence(left, right, COMPARABLES);
+	}
+
+	/**
+	 * Sequentially compares the elements of two Streams by the rules of
+	 * {@link #elementsForced(Iterable, Iterable)}, pulling one
+	 * element from each side at a time. The comparison stops at the first
+	 * mismatch, without consuming the remaining elements, which allows large
+	 * or unbounded sources to be compared lazily. Note that two equal unbounded
+	 * sources are never exhausted.<br>
+	 * Both streams are closed before this method returns.
+	 * 
+	 * @param left
+	 *            Left Stream.
+	 * @param right
+	 *            Right Stream.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static boolean elementsForced(Stream<?> left, Stream<?> right) {
+		try (Stream<?> leftStream = left; Stream<?> rightStream = right) {
+			return sequence(leftStream.spliterator(), rightStream.spliterator(), FORCED);
+		}
+	}
+
+	/**
+	 * Sequentially compares the elements of two Spliterators by the rules of
+	 * {@link #elementsForced(Iterable, Iterable)}, pulling one
+	 * element from each side at a time. The comparison stops at the first
+	 * mismatch, without consuming the remaining elements, which allows large
+	 * or unbounded sources to be compared lazily. Note that two equal unbounded
+	 * sources are never exhausted.
+	 * 
+	 * @param left
+	 *            Left Spliterator.
+	 * @param right
+	 *            Right Spliterator.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static boolean elementsForced(Spliterator<?> left, Spliterator<?> right) {
+		return sequence(left, right, FORCED);
+	}
+
+	/**
+	 * Deeply compares two objects, descending into nested Maps, Iterables and
+	 * arrays, including primitive arrays.<br>
+	 * <br>
+	 * Two objects are considered equal by the rules of this method, if one of
+	 * the following is true:
+	 * <ol>
+	 * <li>both objects are <code>null</code> or the same object</li>
+	 * <li>both are Maps of the same size, and the values of each key deeply
+	 * match</li>
+	 * <li>both are Sets, and equal each other by
+	 * {@link Object#equals(Object)}</li>
+	 * <li>both are Iterables or object arrays of the same length, and their
+	 * elements deeply match pairwise and in sequential order. Elements of the
+	 * class of an Iterable other than a Collection and equal to it, such as
+	 * the name of a {@link Path} with a single name, are compared by
+	 * {@link Object#equals(Object)} instead</li>
+	 * <li>both are primitive arrays of the same type and equal contents</li>
+	 * <li>both are Comparable and match by
+	 * {@link #asMatchingSuperclass(Object, Object)}</li>
+	 * <li>both are neither, and equal each other by
+	 * {@link Object#equals(Object)}</li>
+	 * </ol>
+	 * The structures are walked with an explicit stack rather than by
+	 * recursion, hence deeply nested structures cannot overflow the call
+	 * stack. Each pair of nested containers is descended into only once, which
+	 * resolves cycles and shared substructures in linear time. The comparison
+	 * stops at the first difference.
+	 * 
+	 * @param left
+	 *            Left object.
+	 * @param right
+	 *            Right object.
+	 * @return True, if the objects deeply match.
+	 */
+	public static boolean deep(Object left, Object right) {
+		Deque<DeepFrame> stack = new ArrayDeque<>();
+		Set<IdentityPair> visited = new HashSet<>();
+		if (!open(left, right, stack, visited)) {
+			return false;
+		}
+		while (!stack.isEmpty()) {
+			DeepFrame frame = stack.peek();
+			int state = frame.advance();
+			if (state < 0) {
+				return false;
+			} else if (state == 0) {
+				stack.pop();
+			} else if (!open(frame.m_left, frame.m_right, stack, visited)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -262,12 +476,10 @@ public class Compare {
 		}
 		Class<? extends Object> leftClass = left.getClass();
 		Class<? extends Object> rightClass = right.getClass();
-		if (leftClass.equals(rightClass) && Comparable.class.isAssignableFrom(leftClass)) {
+		if (leftClass.equals(rightClass)) {
 			try {
-				Method compareTo = leftClass.getMethod("compareTo", Object.class);
-				return ((Integer) compareTo.invoke(left, right)) == 0;
-			} catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException
-					| InvocationTargetException e) {
+				return (int) COMPARE_TO.get(leftClass).invokeExact(left, right) == 0;
+			} catch (Throwable e) {
 				return false;
 			}
 		}
@@ -313,22 +525,2041 @@ public class Compare {
 	 *         pairwise and in sequential order.
 	 */
 	public static <T extends Comparable<T>> boolean exactly(Iterable<? extends T> left, Iterable<? extends T> right) {
+		return sequence(left, right, IDENTICAL);
+	}
+
+	/**
+	 * Sequentially compares the elements within two Iterables or Arrays with
+	 * each other. Nullary objects are also considered elements and are not
+	 * filtered.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right Iterable.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>, E extends T> boolean exactly(E[] left, Iterable<? extends T> right) {
+		return sequence(left, right, IDENTICAL);
+	}
+
+	/**
+	 * Sequentially compares the elements within two Iterables or Arrays with
+	 * each other. Nullary objects are also considered elements and are not
+	 * filtered.
+	 * 
+	 * @param left
+	 *            Left Iterable.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>, E extends T> boolean exactly(Iterable<? extends T> left, E[] right) {
+		return sequence(right, left, IDENTICAL);
+	}
+
+	/**
+	 * Sequentially compares the elements within two Iterables or Arrays with
+	 * each other. Nullary objects are also considered elements and are not
+	 * filtered.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>, E extends T, F extends T> boolean exactly(E[] left, F[] right) {
+		return sequence(left, right, IDENTICAL);
+	}
+
+	/**
+	 * Compares two collections, that are compared repeatedly, by
+	 * {@link Object#equals(Object)}. The {@link Fingerprint}s of both
+	 * collections are cached by {@link Fingerprint#cached(Collection)}, and
+	 * collections with different fingerprints are rejected without walking
+	 * them. Only if the fingerprints match, the elements are compared
+	 * pairwise.<br>
+	 * Unlike {@link #elements(Iterable, Iterable)}, elements are not compared
+	 * by {@link Comparable#compareTo(Object)}, as fingerprints are built from
+	 * {@link Object#hashCode()}, which is only consistent with equals.<br>
+	 * The collections must not be modified between comparisons, unless their
+	 * cached fingerprints are updated or invalidated.
+	 * 
+	 * @param left
+	 *            Left Collection.
+	 * @param right
+	 *            Right Collection.
+	 * @return True, if the elements of the collections equal each other
+	 *         pairwise and in sequential order.
+	 */
+	public static boolean elementsCached(Collection<?> left, Collection<?> right) {
+		if (left.size() != right.size()) {
+			return false;
+		}
+		if (left == right) {
+			return true;
+		}
+		if (!Fingerprint.cached(left).matches(Fingerprint.cached(right))) {
+			return false;
+		}
+		return sequence(left, right, EQUAL);
+	}
+
+	/**
+	 * Parallel variant of {@link #elements(Iterable, Iterable)}. Inputs of at least
+	 * {@link #PARALLEL_THRESHOLD} elements are split into chunks compared in the
+	 * common {@link ForkJoinPool}. As soon as any chunk finds a mismatch, all
+	 * remaining chunks are skipped. Lists not implementing
+	 * {@link RandomAccess} are compared sequentially.
+	 * 
+	 * @param left
+	 *            Left List.
+	 * @param right
+	 *            Right List.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>> boolean elementsParallel(List<? extends T> left, List<? extends T> right) {
+		return parallel(left, right, COMPARABLES);
+	}
+
+	/**
+	 * Parallel variant of {@link #elements(Comparable[], Comparable[])}. Inputs of at least
+	 * {@link #PARALLEL_THRESHOLD} elements are split into chunks compared in the
+	 * common {@link ForkJoinPool}. As soon as any chunk finds a mismatch, all
+	 * remaining chunks are skipped.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <T extends Comparable<T>, E extends T, F extends T> boolean elementsParallel(E[] left, F[] right) {
+		return left.length == right.length && parallel(Arrays.asList(left), Arrays.asList(right), COMPARABLES);
+	}
+
+	/**
+	 * Parallel variant of {@link #elementsForced(Iterable, Iterable)}. Inputs of at least
+	 * {@link #PARALLEL_THRESHOLD} elements are split into chunks compared in the
+	 * common {@link ForkJoinPool}. As soon as any chunk finds a mismatch, all
+	 * remaining chunks are skipped. Lists not implementing
+	 * {@link RandomAccess} are compared sequentially.
+	 * 
+	 * @param left
+	 *            Left List.
+	 * @param right
+	 *            Right List.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static boolean elementsForcedParallel(List<?> left, List<?> right) {
+		return parallel(left, right, FORCED);
+	}
+
+	/**
+	 * Parallel variant of {@link #elementsForced(Object[], Object[])}. Inputs of at least
+	 * {@link #PARALLEL_THRESHOLD} elements are split into chunks compared in the
+	 * common {@link ForkJoinPool}. As soon as any chunk finds a mismatch, all
+	 * remaining chunks are skipped.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the elements strictly equal each other pairwise and in
+	 *         sequential order.
+	 */
+	public static <L, R> boolean elementsForcedParallel(L[] left, R[] right) {
+		return left.length == right.length && parallel(Arrays.asList(left), Arrays.asList(right), FORCED);
+	}
+
+	/**
+	 * Locates the first pair of elements within two Iterables not matching by
+	 * {@link #comparables(Comparable, Comparable)}. Nullary objects are also
+	 * considered elements and are not filtered.
+	 * 
+	 * @param left
+	 *            Left Iterable.
+	 * @param right
+	 *            Right Iterable.
+	 * @return Index of the first mismatching pair, the length of the shorter
+	 *         Iterable, if it is a prefix of the longer one, or -1, if the
+	 *         elements strictly equal each other pairwise and in sequential
+	 *         order.
+	 */
+	public static <T extends Comparable<T>> long mismatch(Iterable<? extends T> left, Iterable<? extends T> right) {
+		if (left instanceof RandomAccess && left instanceof List<?> && right instanceof RandomAccess
+				&& right instanceof List<?>) {
+			List<?> leftList = (List<?>) left;
+			List<?> rightList = (List<?>) right;
+			int size = Math.min(leftList.size(), rightList.size());
+			for (int i = 0; i < size; i++) {
+				if (!comparablesUnchecked(leftList.get(i), rightList.get(i))) {
+					return i;
+				}
+			}
+			return leftList.size() == rightList.size() ? -1 : size;
+		}
+
 		Iterator<? extends T> iLeft = left.iterator();
 		Iterator<? extends T> iRight = right.iterator();
-
-		// pairwise comparison.
+		long index = 0;
 		while (iLeft.hasNext() && iRight.hasNext()) {
-			T leftElement = iLeft.next();
-			T rightElement = iRight.next();
+			if (!comparables(iLeft.next(), iRight.next())) {
+				return index;
+			}
+			index++;
+		}
+		return iLeft.hasNext() || iRight.hasNext() ? index : -1;
+	}
+
+	/**
+	 * Locates the first pair of elements within two arrays not matching by
+	 * {@link #comparables(Comparable, Comparable)}. Nullary objects are also
+	 * considered elements and are not filtered.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return Index of the first mismatching pair, the length of the shorter
+	 *         array, if it is a prefix of the longer one, or -1, if the
+	 *         elements strictly equal each other pairwise and in sequential
+	 *         order.
+	 */
+	public static <T extends Comparable<T>, E extends T, F extends T> int mismatch(E[] left, F[] right) {
+		int length = Math.min(left.length, right.length);
+		for (int i = 0; i < length; i++) {
+			if (!comparables(left[i], right[i])) {
+				return i;
+			}
+		}
+		return left.length == right.length ? -1 : length;
+	}
+
+	/**
+	 * Lazily computes the differences between two Iterables as a sequence of
+	 * {@link Run}s of equal, deleted and inserted elements. Elements are
+	 * matched by {@link #comparables(Comparable, Comparable)}.<br>
+	 * Both Iterables are read in lock-step, and each run is computed only when
+	 * requested. After a mismatch, elements are buffered from both sides until
+	 * an element of one side matches a buffered element of the other side, at
+	 * which point both sides are resynchronized. Hence memory is bounded by the
+	 * size of the differing regions rather than by the input size, and equal
+	 * runs are reported by their length only. The resulting edit script is
+	 * greedy and not necessarily minimal.<br>
+	 * Each call to {@link Iterable#iterator()} of the result starts a new diff.
+	 * 
+	 * @param left
+	 *            Left (old) Iterable.
+	 * @param right
+	 *            Right (new) Iterable.
+	 * @return Iterable of runs, transforming the left into the right Iterable.
+	 */
+	public static <T extends Comparable<T>> Iterable<Run<T>> diff(Iterable<? extends T> left,
+			Iterable<? extends T> right) {
+		return () -> new DiffIterator<T>(left.iterator(), right.iterator());
+	}
 
-			if (leftElement != rightElement) {
+	/**
+	 * Compares the elements within two Iterables regardless of their order.
+	 * Both Iterables match, if they contain equal elements with equal
+	 * multiplicity. Elements are matched by {@link Object#equals(Object)} and
+	 * {@link Object#hashCode()}, nullary objects are also considered elements.
+	 * <br>
+	 * Runs in linear time by counting the elements of the left Iterable.
+	 * Collections of different size are rejected without looking at the
+	 * elements.
+	 * 
+	 * @param left
+	 *            Left Iterable.
+	 * @param right
+	 *            Right Iterable.
+	 * @return True, if both Iterables contain the same elements, in any order.
+	 */
+	public static boolean unordered(Iterable<?> left, Iterable<?> right) {
+		int expected = 16;
+		if (left instanceof Collection<?> && right instanceof Collection<?>) {
+			expected = ((Collection<?>) left).size();
+			if (expected != ((Collection<?>) right).size()) {
+				return false;
+			}
+		}
+		Map<Object, int[]> counts = new HashMap<>(Math.max(16, (int) (expected / 0.75f) + 1));
+		long remaining = 0;
+		for (Object element : left) {
+			counts.computeIfAbsent(element, key -> new int[1])[0]++;
+			remaining++;
+		}
+		for (Object element : right) {
+			int[] count = counts.get(element);
+			if (count == null || --count[0] < 0) {
 				return false;
 			}
+			remaining--;
 		}
+		return remaining == 0;
+	}
 
-		if (iLeft.hasNext() || iRight.hasNext()) {
+	/**
+	 * Compares the elements within two arrays regardless of their order. See
+	 * {@link #unordered(Iterable, Iterable)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if both arrays contain the same elements, in any order.
+	 */
+	public static boolean unordered(Object[] left, Object[] right) {
+		return left.length == right.length && unordered(Arrays.asList(left), Arrays.asList(right));
+	}
+
+	/**
+	 * Compares the elements within two <code>int</code> arrays regardless of
+	 * their order, without boxing.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if both arrays contain the same values with the same
+	 *         multiplicity.
+	 */
+	public static boolean unordered(int[] left, int[] right) {
+		if (left.length != right.length) {
 			return false;
 		}
+		PrimitiveCounts counts = new PrimitiveCounts(left.length);
+		for (int value : left) {
+			counts.increment(value);
+		}
+		for (int value : right) {
+			if (!counts.decrement(value)) {
+				return false;
+			}
+		}
 		return true;
 	}
+
+	/**
+	 * Compares the elements within two <code>long</code> arrays regardless of
+	 * their order, without boxing.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if both arrays contain the same values with the same
+	 *         multiplicity.
+	 */
+	public static boolean unordered(long[] left, long[] right) {
+		if (left.length != right.length) {
+			return false;
+		}
+		PrimitiveCounts counts = new PrimitiveCounts(left.length);
+		for (long value : left) {
+			counts.increment(value);
+		}
+		for (long value : right) {
+			if (!counts.decrement(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares the elements within two <code>double</code> arrays regardless of
+	 * their order, without boxing. Values are matched by their bits, as by
+	 * {@link Double#equals(Object)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if both arrays contain the same values with the same
+	 *         multiplicity.
+	 */
+	public static boolean unordered(double[] left, double[] right) {
+		if (left.length != right.length) {
+			return false;
+		}
+		PrimitiveCounts counts = new PrimitiveCounts(left.length);
+		for (double value : left) {
+			counts.increment(Double.doubleToLongBits(value));
+		}
+		for (double value : right) {
+			if (!counts.decrement(Double.doubleToLongBits(value))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parallel variant of {@link #unordered(Iterable, Iterable)}. Collections
+	 * of at least {@link #PARALLEL_THRESHOLD} elements are counted and
+	 * compared by parallel streams on a concurrent map. Smaller collections are
+	 * compared sequentially.
+	 * 
+	 * @param left
+	 *            Left Collection.
+	 * @param right
+	 *            Right Collection.
+	 * @return True, if both Collections contain the same elements, in any
+	 *         order.
+	 */
+	public static boolean unorderedParallel(Collection<?> left, Collection<?> right) {
+		int size = left.size();
+		if (size != right.size()) {
+			return false;
+		}
+		if (size < PARALLEL_THRESHOLD) {
+			return unordered(left, right);
+		}
+		// ConcurrentHashMap does not accept null keys.
+		Object nullKey = new Object();
+		ConcurrentHashMap<Object, AtomicLong> counts = new ConcurrentHashMap<>((int) (size / 0.75f) + 1);
+		left.parallelStream().forEach(
+				element -> counts.computeIfAbsent(element == null ? nullKey : element, key -> new AtomicLong())
+						.incrementAndGet());
+		// with equal sizes, no count dropping below zero implies all counts are zero.
+		return right.parallelStream().noneMatch(element -> {
+			AtomicLong count = counts.get(element == null ? nullKey : element);
+			return count == null || count.decrementAndGet() < 0;
+		});
+	}
+
+	/**
+	 * Compares two <code>int</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(int[] left, int[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>int</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(int[] left, int leftFrom, int[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_INT != null) {
+			try {
+				return (boolean) RANGE_EQUALS_INT.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (left[leftFrom + i] != right[rightFrom + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>int</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(int[], int[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(int[] left, int[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>int</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(int[], int, int[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(int[] left, int leftFrom, int[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares two <code>long</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(long[] left, long[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>long</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(long[] left, int leftFrom, long[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_LONG != null) {
+			try {
+				return (boolean) RANGE_EQUALS_LONG.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (left[leftFrom + i] != right[rightFrom + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>long</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(long[], long[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(long[] left, long[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>long</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(long[], int, long[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(long[] left, int leftFrom, long[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares two <code>double</code> arrays element by element.
+	 * Values are compared by their bits, as by {@link Arrays#equals(double[], double[])}:
+	 * <code>NaN</code> equals <code>NaN</code>, but <code>0.0</code> does not
+	 * equal <code>-0.0</code>.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(double[] left, double[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>double</code> arrays element by element.
+	 * Values are compared by their bits, as by {@link Arrays#equals(double[], double[])}:
+	 * <code>NaN</code> equals <code>NaN</code>, but <code>0.0</code> does not
+	 * equal <code>-0.0</code>.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(double[] left, int leftFrom, double[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_DOUBLE != null) {
+			try {
+				return (boolean) RANGE_EQUALS_DOUBLE.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (Double.doubleToLongBits(left[leftFrom + i]) != Double.doubleToLongBits(right[rightFrom + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>double</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(double[], double[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(double[] left, double[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>double</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(double[], int, double[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(double[] left, int leftFrom, double[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares two <code>float</code> arrays element by element.
+	 * Values are compared by their bits, as by {@link Arrays#equals(float[], float[])}:
+	 * <code>NaN</code> equals <code>NaN</code>, but <code>0.0</code> does not
+	 * equal <code>-0.0</code>.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(float[] left, float[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>float</code> arrays element by element.
+	 * Values are compared by their bits, as by {@link Arrays#equals(float[], float[])}:
+	 * <code>NaN</code> equals <code>NaN</code>, but <code>0.0</code> does not
+	 * equal <code>-0.0</code>.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(float[] left, int leftFrom, float[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_FLOAT != null) {
+			try {
+				return (boolean) RANGE_EQUALS_FLOAT.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (Float.floatToIntBits(left[leftFrom + i]) != Float.floatToIntBits(right[rightFrom + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>float</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(float[], float[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(float[] left, float[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>float</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(float[], int, float[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(float[] left, int leftFrom, float[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares two <code>short</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(short[] left, short[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>short</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(short[] left, int leftFrom, short[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_SHORT != null) {
+			try {
+				return (boolean) RANGE_EQUALS_SHORT.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (left[leftFrom + i] != right[rightFrom + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>short</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(short[], short[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(short[] left, short[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>short</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(short[], int, short[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(short[] left, int leftFrom, short[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares two <code>char</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(char[] left, char[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>char</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(char[] left, int leftFrom, char[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_CHAR != null) {
+			try {
+				return (boolean) RANGE_EQUALS_CHAR.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (left[leftFrom + i] != right[rightFrom + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>char</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(char[], char[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(char[] left, char[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>char</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(char[], int, char[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(char[] left, int leftFrom, char[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares two <code>byte</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean elements(byte[] left, byte[] right) {
+		return Arrays.equals(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>byte</code> arrays element by element.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean elements(byte[] left, int leftFrom, byte[] right, int rightFrom, int length) {
+		checkRange(left.length, leftFrom, length);
+		checkRange(right.length, rightFrom, length);
+		if (RANGE_EQUALS_BYTE != null) {
+			try {
+				return (boolean) RANGE_EQUALS_BYTE.invokeExact(left, leftFrom, leftFrom + length, right, rightFrom,
+						rightFrom + length);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (left[leftFrom + i] != right[rightFrom + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two <code>byte</code> arrays element by element. For primitive
+	 * values, this is equivalent to {@link #elements(byte[], byte[])}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @return True, if the arrays have the same length and equal each other
+	 *         pairwise.
+	 */
+	public static boolean exactly(byte[] left, byte[] right) {
+		return elements(left, right);
+	}
+
+	/**
+	 * Compares two ranges of <code>byte</code> arrays element by element. For
+	 * primitive values, this is equivalent to
+	 * {@link #elements(byte[], int, byte[], int, int)}.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param leftFrom
+	 *            Index of the first element compared within the left array.
+	 * @param right
+	 *            Right array.
+	 * @param rightFrom
+	 *            Index of the first element compared within the right array.
+	 * @param length
+	 *            Number of elements compared.
+	 * @return True, if the ranges equal each other pairwise.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if a range exceeds its array.
+	 */
+	public static boolean exactly(byte[] left, int leftFrom, byte[] right, int rightFrom, int length) {
+		return elements(left, leftFrom, right, rightFrom, length);
+	}
+
+	/**
+	 * Compares the remaining contents of two {@link ByteBuffer}s. The
+	 * positions and limits of the buffers are not changed.
+	 * 
+	 * @param left
+	 *            Left buffer.
+	 * @param right
+	 *            Right buffer.
+	 * @return True, if both buffers have the same remaining bytes.
+	 */
+	public static boolean contents(ByteBuffer left, ByteBuffer right) {
+		return left.remaining() == right.remaining() && contentMismatch(left, right) == -1;
+	}
+
+	/**
+	 * Locates the first mismatching byte within the remaining contents of two
+	 * {@link ByteBuffer}s. The positions and limits of the buffers are not
+	 * changed.
+	 * 
+	 * @param left
+	 *            Left buffer.
+	 * @param right
+	 *            Right buffer.
+	 * @return Index of the first mismatching byte relative to the positions of
+	 *         the buffers, the smaller remaining length, if the shorter content
+	 *         is a prefix of the longer one, or -1, if the contents are equal.
+	 */
+	public static int contentMismatch(ByteBuffer left, ByteBuffer right) {
+		if (BUFFER_MISMATCH != null) {
+			try {
+				return (int) BUFFER_MISMATCH.invokeExact(left, right);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		}
+		int leftPosition = left.position();
+		int rightPosition = right.position();
+		int length = Math.min(left.remaining(), right.remaining());
+		int i = 0;
+		if (left.order() == right.order()) {
+			while (i <= length - 8 && left.getLong(leftPosition + i) == right.getLong(rightPosition + i)) {
+				i += 8;
+			}
+		}
+		for (; i < length; i++) {
+			if (left.get(leftPosition + i) != right.get(rightPosition + i)) {
+				return i;
+			}
+		}
+		return left.remaining() == right.remaining() ? -1 : length;
+	}
+
+	/**
+	 * Compares the contents of two files. Files of different size are rejected
+	 * without reading them. Otherwise, the files are read in chunks into
+	 * direct buffers and compared as by
+	 * {@link #contents(ByteBuffer, ByteBuffer)}, which keeps the contents off
+	 * the heap. The files are not memory-mapped, so they can be modified or
+	 * deleted right after the comparison.
+	 * 
+	 * @param left
+	 *            Left file.
+	 * @param right
+	 *            Right file.
+	 * @return True, if both files have the same contents.
+	 * @throws IOException
+	 *             Thrown, if a file cannot be read.
+	 */
+	public static boolean contents(Path left, Path right) throws IOException {
+		return Files.size(left) == Files.size(right) && contentMismatch(left, right) == -1;
+	}
+
+	/**
+	 * Locates the first mismatching byte within the contents of two files. The
+	 * files are read in chunks into direct buffers and compared as by
+	 * {@link #contentMismatch(ByteBuffer, ByteBuffer)}, which keeps the
+	 * contents off the heap. The files are not memory-mapped, so they can be
+	 * modified or deleted right after the comparison.
+	 * 
+	 * @param left
+	 *            Left file.
+	 * @param right
+	 *            Right file.
+	 * @return Offset of the first mismatching byte, the size of the smaller
+	 *         file, if its contents are a prefix of the larger one, or -1, if
+	 *         the contents are equal.
+	 * @throws IOException
+	 *             Thrown, if a file cannot be read.
+	 */
+	public static long contentMismatch(Path left, Path right) throws IOException {
+		try (FileChannel leftChannel = FileChannel.open(left, StandardOpenOption.READ);
+				FileChannel rightChannel = FileChannel.open(right, StandardOpenOption.READ)) {
+			ByteBuffer leftBuffer = ByteBuffer.allocateDirect(READ_CHUNK);
+			ByteBuffer rightBuffer = ByteBuffer.allocateDirect(READ_CHUNK);
+			for (long offset = 0;; offset += READ_CHUNK) {
+				int read = fill(leftChannel, leftBuffer);
+				fill(rightChannel, rightBuffer);
+				int mismatch = contentMismatch(leftBuffer, rightBuffer);
+				if (mismatch >= 0) {
+					return offset + mismatch;
+				}
+				if (read < READ_CHUNK) {
+					return -1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads from a channel until a buffer is full or the channel is exhausted,
+	 * and flips the buffer for reading.
+	 * 
+	 * @param channel
+	 *            Channel to read from.
+	 * @param buffer
+	 *            Buffer to fill.
+	 * @return Number of bytes read.
+	 * @throws IOException
+	 *             Thrown, if the channel cannot be read.
+	 */
+	private static int fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.clear();
+		while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			// keep reading until the buffer is full or the channel is exhausted.
+		}
+		buffer.flip();
+		return buffer.limit();
+	}
+
+	/**
+	 * Applies {@link #asMatchingSuperclass(Object, Object)} to Comparables, and
+	 * checks any other objects for identity.
+	 */
+	private static boolean forced(Object left, Object right) {
+		if (left instanceof Comparable<?> && right instanceof Comparable<?>) {
+			return asMatchingSuperclass(left, right);
+		}
+		return left == right;
+	}
+
+	/**
+	 * Applies {@link #comparables(Comparable, Comparable)} to elements the
+	 * caller guarantees to be mutually comparable.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static boolean comparablesUnchecked(Object left, Object right) {
+		return comparables((Comparable) left, (Comparable) right);
+	}
+
+	/**
+	 * Pairwise compares the elements of two Iterables. Collections of
+	 * different size are rejected without looking at the elements, and
+	 * {@link RandomAccess} lists are compared by index.
+	 * 
+	 * @param left
+	 *            Left Iterable.
+	 * @param right
+	 *            Right Iterable.
+	 * @param matcher
+	 *            Matcher applied to each pair of elements.
+	 * @return True, if all pairs match and both Iterables have the same length.
+	 */
+	private static boolean sequence(Iterable<?> left, Iterable<?> right, BiPredicate<Object, Object> matcher) {
+		if (left instanceof Collection<?> && right instanceof Collection<?>
+				&& ((Collection<?>) left).size() != ((Collection<?>) right).size()) {
+			return false;
+		}
+		if (left instanceof RandomAccess && left instanceof List<?> && right instanceof RandomAccess
+				&& right instanceof List<?>) {
+			List<?> leftList = (List<?>) left;
+			List<?> rightList = (List<?>) right;
+			for (int i = 0, size = leftList.size(); i < size; i++) {
+				if (!matcher.test(leftList.get(i), rightList.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		Iterator<?> iLeft = left.iterator();
+		Iterator<?> iRight = right.iterator();
+
+		// pairwise comparison.
+		while (iLeft.hasNext() && iRight.hasNext()) {
+			if (!matcher.test(iLeft.next(), iRight.next())) {
+				return false;
+			}
+		}
+
+		if (iLeft.hasNext() || iRight.hasNext()) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Pairwise compares the elements of an array and an Iterable, without
+	 * wrapping the array.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right Iterable.
+	 * @param matcher
+	 *            Matcher applied to each pair of elements.
+	 * @return True, if all pairs match and both have the same length.
+	 */
+	private static boolean sequence(Object[] left, Iterable<?> right, BiPredicate<Object, Object> matcher) {
+		if (right instanceof Collection<?> && ((Collection<?>) right).size() != left.length) {
+			return false;
+		}
+		if (right instanceof RandomAccess && right instanceof List<?>) {
+			List<?> rightList = (List<?>) right;
+			for (int i = 0; i < left.length; i++) {
+				if (!matcher.test(left[i], rightList.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		Iterator<?> iRight = right.iterator();
+		for (Object leftElement : left) {
+			if (!iRight.hasNext() || !matcher.test(leftElement, iRight.next())) {
+				return false;
+			}
+		}
+		return !iRight.hasNext();
+	}
+
+	/**
+	 * Pairwise compares the elements of two arrays.
+	 * 
+	 * @param left
+	 *            Left array.
+	 * @param right
+	 *            Right array.
+	 * @param matcher
+	 *            Matcher applied to each pair of elements.
+	 * @return True, if all pairs match and both arrays have the same length.
+	 */
+	private static boolean sequence(Object[] left, Object[] right, BiPredicate<Object, Object> matcher) {
+		if (left.length != right.length) {
+			return false;
+		}
+		for (int i = 0; i < left.length; i++) {
+			if (!matcher.test(left[i], right[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether a range lies within an array.
+	 * 
+	 * @param arrayLength
+	 *            Length of the array.
+	 * @param from
+	 *            Index of the first element of the range.
+	 * @param length
+	 *            Length of the range.
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             Thrown, if the range exceeds the array.
+	 */
+	private static void checkRange(int arrayLength, int from, int length) {
+		if (from < 0 || length < 0 || from > arrayLength - length) {
+			throw new ArrayIndexOutOfBoundsException(
+					"Range [" + from + ", " + from + " + " + length + ") out of bounds for length " + arrayLength);
+		}
+	}
+
+	/**
+	 * Looks up the range based <code>Arrays.equals</code> overload for the
+	 * given array type.
+	 * 
+	 * @param arrayType
+	 *            Primitive array type.
+	 * @return Handle of the overload, or <code>null</code>, if not available.
+	 */
+	private static MethodHandle rangeEquals(Class<?> arrayType) {
+		try {
+			return MethodHandles.publicLookup().findStatic(Arrays.class, "equals", MethodType.methodType(boolean.class,
+					arrayType, int.class, int.class, arrayType, int.class, int.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up <code>ByteBuffer.mismatch(ByteBuffer)</code>.
+	 * 
+	 * @return Handle of the method, or <code>null</code>, if not available.
+	 */
+	private static MethodHandle bufferMismatch() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(ByteBuffer.class, "mismatch",
+					MethodType.methodType(int.class, ByteBuffer.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Rethrows a throwable unchecked. Handles invoked by this class do not
+	 * throw checked exceptions.
+	 * 
+	 * @param e
+	 *            Throwable to be rethrown.
+	 * @return Never returns, declared for use in <code>throw</code>
+	 *         statements.
+	 */
+	private static RuntimeException unchecked(Throwable e) {
+		if (e instanceof RuntimeException) {
+			throw (RuntimeException) e;
+		} else if (e instanceof Error) {
+			throw (Error) e;
+		}
+		throw new IllegalStateException(e);
+	}
+
+	/**
+	 * Pairwise compares the elements of two lists in parallel, if both are
+	 * {@link RandomAccess} lists of at least {@link #PARALLEL_THRESHOLD}
+	 * elements. Otherwise, the lists are compared sequentially.
+	 * 
+	 * @param left
+	 *            Left list.
+	 * @param right
+	 *            Right list.
+	 * @param matcher
+	 *            Matcher applied to each pair of elements.
+	 * @return True, if all pairs match and both lists have the same length.
+	 */
+	private static boolean parallel(List<?> left, List<?> right, BiPredicate<Object, Object> matcher) {
+		int size = left.size();
+		if (size != right.size()) {
+			return false;
+		}
+		if (size < PARALLEL_THRESHOLD || !(left instanceof RandomAccess) || !(right instanceof RandomAccess)) {
+			return sequence(left, right, matcher);
+		}
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		int chunk = Math.max(PARALLEL_CHUNK, size / (pool.getParallelism() << 2));
+		AtomicBoolean mismatch = new AtomicBoolean();
+		pool.invoke(new ParallelMatch(left, right, matcher, mismatch, chunk, 0, size));
+		return !mismatch.get();
+	}
+
+	/**
+	 * Pairwise compares the elements of two Spliterators in lock-step.
+	 * Spliterators of different known size are rejected without looking at
+	 * the elements.
+	 * 
+	 * @param left
+	 *            Left Spliterator.
+	 * @param right
+	 *            Right Spliterator.
+	 * @param matcher
+	 *            Matcher applied to each pair of elements.
+	 * @return True, if all pairs match and both Spliterators have the same
+	 *         length.
+	 */
+	private static boolean sequence(Spliterator<?> left, Spliterator<?> right, BiPredicate<Object, Object> matcher) {
+		if (left.hasCharacteristics(Spliterator.SIZED) && right.hasCharacteristics(Spliterator.SIZED)
+				&& left.getExactSizeIfKnown() != right.getExactSizeIfKnown()) {
+			return false;
+		}
+		Cursor leftCursor = new Cursor();
+		Cursor rightCursor = new Cursor();
+		while (true) {
+			boolean hasLeft = left.tryAdvance(leftCursor);
+			boolean hasRight = right.tryAdvance(rightCursor);
+			if (hasLeft != hasRight) {
+				return false;
+			} else if (!hasLeft) {
+				return true;
+			} else if (!matcher.test(leftCursor.m_element, rightCursor.m_element)) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Receives the elements of a Spliterator advanced one at a time.
+	 */
+	private static final class Cursor implements Consumer<Object> {
+		private Object m_element;
+
+		@Override
+		public void accept(Object element) {
+			m_element = element;
+		}
+	}
+
+	/**
+	 * Compares a pair of objects for {@link #deep(Object, Object)}. Leaves are
+	 * compared in place, while a frame is pushed for containers not visited
+	 * before.
+	 * 
+	 * @return False, if the pair is known to mismatch.
+	 */
+	private static boolean open(Object left, Object right, Deque<DeepFrame> stack, Set<IdentityPair> visited) {
+		if (left == right) {
+			return true;
+		}
+		if (left == null || right == null) {
+			return false;
+		}
+		if (left instanceof Map<?, ?> || right instanceof Map<?, ?>) {
+			if (!(left instanceof Map<?, ?>) || !(right instanceof Map<?, ?>)
+					|| ((Map<?, ?>) left).size() != ((Map<?, ?>) right).size()) {
+				return false;
+			}
+			if (visited.add(new IdentityPair(left, right))) {
+				stack.push(new MapFrame(((Map<?, ?>) left).entrySet().iterator(), (Map<?, ?>) right));
+			}
+			return true;
+		}
+		if (left instanceof Set<?> || right instanceof Set<?>) {
+			return left instanceof Set<?> && right instanceof Set<?> && left.equals(right);
+		}
+		boolean leftArray = left.getClass().isArray();
+		boolean rightArray = right.getClass().isArray();
+		if (leftArray && left.getClass().getComponentType().isPrimitive()
+				|| rightArray && right.getClass().getComponentType().isPrimitive()) {
+			return primitiveArrays(left, right);
+		}
+		boolean leftSequence = leftArray || left instanceof Iterable<?>;
+		boolean rightSequence = rightArray || right instanceof Iterable<?>;
+		if (leftSequence || rightSequence) {
+			if (!leftSequence || !rightSequence) {
+				return false;
+			}
+			Iterable<?> leftIterable = leftArray ? Arrays.asList((Object[]) left) : (Iterable<?>) left;
+			Iterable<?> rightIterable = rightArray ? Arrays.asList((Object[]) right) : (Iterable<?>) right;
+			if (leftIterable instanceof Collection<?> && rightIterable instanceof Collection<?>
+					&& ((Collection<?>) leftIterable).size() != ((Collection<?>) rightIterable).size()) {
+				return false;
+			}
+			if (visited.add(new IdentityPair(left, right))) {
+				stack.push(new SequenceFrame(left, right, leftIterable.iterator(), rightIterable.iterator()));
+			}
+			return true;
+		}
+		if (left instanceof Comparable<?> && right instanceof Comparable<?>) {
+			return asMatchingSuperclass(left, right);
+		}
+		return left.equals(right);
+	}
+
+	/**
+	 * Compares two primitive arrays of the same type by their contents.
+	 * 
+	 * @return False, if the arrays are of different types or contents.
+	 */
+	private static boolean primitiveArrays(Object left, Object right) {
+		if (left.getClass() != right.getClass()) {
+			return false;
+		} else if (left instanceof int[]) {
+			return Arrays.equals((int[]) left, (int[]) right);
+		} else if (left instanceof long[]) {
+			return Arrays.equals((long[]) left, (long[]) right);
+		} else if (left instanceof double[]) {
+			return Arrays.equals((double[]) left, (double[]) right);
+		} else if (left instanceof float[]) {
+			return Arrays.equals((float[]) left, (float[]) right);
+		} else if (left instanceof short[]) {
+			return Arrays.equals((short[]) left, (short[]) right);
+		} else if (left instanceof char[]) {
+			return Arrays.equals((char[]) left, (char[]) right);
+		} else if (left instanceof byte[]) {
+			return Arrays.equals((byte[]) left, (byte[]) right);
+		}
+		return Arrays.equals((boolean[]) left, (boolean[]) right);
+	}
+
+	/**
+	 * Pair of containers compared by {@link Compare#deep(Object, Object)},
+	 * identified by the identity of both objects.
+	 */
+	private static final class IdentityPair {
+		private final Object m_left;
+		private final Object m_right;
+
+		private IdentityPair(Object left, Object right) {
+			m_left = left;
+			m_right = right;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(m_left) + System.identityHashCode(m_right);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof IdentityPair)) {
+				return false;
+			}
+			IdentityPair other = (IdentityPair) object;
+			return m_left == other.m_left && m_right == other.m_right;
+		}
+	}
+
+	/**
+	 * Container on the stack of {@link Compare#deep(Object, Object)}, providing
+	 * its pairs of nested objects one at a time.
+	 */
+	private static abstract class DeepFrame {
+		protected Object m_left;
+		protected Object m_right;
+
+		/**
+		 * Provides the next pair of nested objects.
+		 * 
+		 * @return 1, if the next pair is available, 0, if the container is
+		 *         exhausted, or -1, if the containers mismatch.
+		 */
+		protected abstract int advance();
+	}
+
+	/**
+	 * Frame walking two Iterables in lock-step.
+	 */
+	private static final class SequenceFrame extends DeepFrame {
+		private final Object m_leftSequence;
+		private final Object m_rightSequence;
+		private final Iterator<?> m_leftIterator;
+		private final Iterator<?> m_rightIterator;
+
+		private SequenceFrame(Object leftSequence, Object rightSequence, Iterator<?> leftIterator,
+				Iterator<?> rightIterator) {
+			m_leftSequence = leftSequence;
+			m_rightSequence = rightSequence;
+			m_leftIterator = leftIterator;
+			m_rightIterator = rightIterator;
+		}
+
+		/**
+		 * Elements, which are of the class of their sequence and equal to it,
+		 * are compared by {@link Object#equals(Object)} in place, as descending
+		 * into them would never end. A {@link Path} with a single name, for
+		 * instance, iterates over a new Path equal to itself. Collections are
+		 * exempt, as their equals would walk nested and cyclic structures
+		 * recursively.
+		 */
+		@Override
+		protected int advance() {
+			while (true) {
+				boolean hasLeft = m_leftIterator.hasNext();
+				if (hasLeft != m_rightIterator.hasNext()) {
+					return -1;
+				} else if (!hasLeft) {
+					return 0;
+				}
+				m_left = m_leftIterator.next();
+				m_right = m_rightIterator.next();
+				if (!selfSimilar(m_left, m_leftSequence) && !selfSimilar(m_right, m_rightSequence)) {
+					return 1;
+				} else if (!m_left.equals(m_right)) {
+					return -1;
+				}
+			}
+		}
+
+		private static boolean selfSimilar(Object element, Object sequence) {
+			return element != null && !(sequence instanceof Collection<?>) && element.getClass() == sequence.getClass()
+					&& element.equals(sequence);
+		}
+	}
+
+	/**
+	 * Frame pairing the values of two Maps by key.
+	 */
+	private static final class MapFrame extends DeepFrame {
+		private final Iterator<? extends Map.Entry<?, ?>> m_entries;
+		private final Map<?, ?> m_rightMap;
+
+		private MapFrame(Iterator<? extends Map.Entry<?, ?>> entries, Map<?, ?> rightMap) {
+			m_entries = entries;
+			m_rightMap = rightMap;
+		}
+
+		@Override
+		protected int advance() {
+			if (!m_entries.hasNext()) {
+				return 0;
+			}
+			Map.Entry<?, ?> entry = m_entries.next();
+			m_left = entry.getValue();
+			m_right = m_rightMap.get(entry.getKey());
+			if (m_right == null && !m_rightMap.containsKey(entry.getKey())) {
+				return -1;
+			}
+			return 1;
+		}
+	}
+
+	/**
+	 * Task comparing a range of two lists, splitting it in halves until the
+	 * range is no longer than the chunk size. A mismatch found by any task is
+	 * shared through a flag, which makes all other tasks stop early.
+	 */
+	private static final class ParallelMatch extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Number of pairs compared between two checks of the mismatch flag.
+		 */
+		private static final int CHECK_INTERVAL = 1 << 10;
+
+		// tasks are never serialized, the fields only need to live as long as the task.
+		private final transient List<?> m_left;
+		private final transient List<?> m_right;
+		private final transient BiPredicate<Object, Object> m_matcher;
+		private final transient AtomicBoolean m_mismatch;
+		private final int m_chunk;
+		private final int m_from;
+		private final int m_to;
+
+		private ParallelMatch(List<?> left, List<?> right, BiPredicate<Object, Object> matcher,
+				AtomicBoolean mismatch, int chunk, int from, int to) {
+			m_left = left;
+			m_right = right;
+			m_matcher = matcher;
+			m_mismatch = mismatch;
+			m_chunk = chunk;
+			m_from = from;
+			m_to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (m_mismatch.get()) {
+				return;
+			}
+			if (m_to - m_from > m_chunk) {
+				int middle = (m_from + m_to) >>> 1;
+				invokeAll(new ParallelMatch(m_left, m_right, m_matcher, m_mismatch, m_chunk, m_from, middle),
+						new ParallelMatch(m_left, m_right, m_matcher, m_mismatch, m_chunk, middle, m_to));
+				return;
+			}
+			for (int i = m_from; i < m_to; i++) {
+				if (!m_matcher.test(m_left.get(i), m_right.get(i))) {
+					m_mismatch.set(true);
+					return;
+				}
+				if ((i & (CHECK_INTERVAL - 1)) == 0 && m_mismatch.get()) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A run of equal, deleted or inserted elements reported by
+	 * {@link Compare#diff(Iterable, Iterable)}.
+	 */
+	public static final class Run<T> {
+		/**
+		 * Kinds of runs.
+		 */
+		public enum Kind {
+			/**
+			 * Elements present in both Iterables.
+			 */
+			EQUAL,
+			/**
+			 * Elements only present in the left Iterable.
+			 */
+			DELETE,
+			/**
+			 * Elements only present in the right Iterable.
+			 */
+			INSERT
+		}
+
+		private final Kind m_kind;
+		private final long m_leftIndex;
+		private final long m_rightIndex;
+		private final long m_length;
+		private final List<T> m_elements;
+
+		private Run(Kind kind, long leftIndex, long rightIndex, long length, List<T> elements) {
+			m_kind = kind;
+			m_leftIndex = leftIndex;
+			m_rightIndex = rightIndex;
+			m_length = length;
+			m_elements = elements;
+		}
+
+		/**
+		 * @return Kind of this run.
+		 */
+		public Kind getKind() {
+			return m_kind;
+		}
+
+		/**
+		 * @return Index of the first element of this run within the left
+		 *         Iterable, or the index at which the run is inserted.
+		 */
+		public long getLeftIndex() {
+			return m_leftIndex;
+		}
+
+		/**
+		 * @return Index of the first element of this run within the right
+		 *         Iterable, or the index at which the run was deleted.
+		 */
+		public long getRightIndex() {
+			return m_rightIndex;
+		}
+
+		/**
+		 * @return Number of elements in this run.
+		 */
+		public long getLength() {
+			return m_length;
+		}
+
+		/**
+		 * @return Deleted or inserted elements. Empty for equal runs, which are
+		 *         not buffered.
+		 */
+		public List<T> getElements() {
+			return m_elements;
+		}
+
+		@Override
+		public String toString() {
+			return m_kind + "[" + m_leftIndex + ", " + m_rightIndex + ", " + m_length + "]"
+					+ (m_elements.isEmpty() ? "" : m_elements);
+		}
+	}
+
+	/**
+	 * Iterator computing the runs of {@link Compare#diff(Iterable, Iterable)}
+	 * on demand.
+	 */
+	private static final class DiffIterator<T extends Comparable<T>> implements Iterator<Run<T>> {
+		private final Iterator<? extends T> m_left;
+		private final Iterator<? extends T> m_right;
+
+		/**
+		 * Elements read ahead during a resynchronization and pushed back to be
+		 * read again. LinkedLists, since elements may be <code>null</code>.
+		 */
+		private final LinkedList<T> m_pendingLeft = new LinkedList<>();
+		private final LinkedList<T> m_pendingRight = new LinkedList<>();
+
+		private final LinkedList<Run<T>> m_runs = new LinkedList<>();
+		private long m_leftIndex;
+		private long m_rightIndex;
+		private boolean m_done;
+
+		private DiffIterator(Iterator<? extends T> left, Iterator<? extends T> right) {
+			m_left = left;
+			m_right = right;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (m_runs.isEmpty() && !m_done) {
+				advance();
+			}
+			return !m_runs.isEmpty();
+		}
+
+		@Override
+		public Run<T> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return m_runs.removeFirst();
+		}
+
+		/**
+		 * Reads both sides until at least one run is complete.
+		 */
+		private void advance() {
+			long equal = 0;
+			while (hasLeft() && hasRight()) {
+				T left = nextLeft();
+				T right = nextRight();
+				if (comparables(left, right)) {
+					equal++;
+					continue;
+				}
+				addEqual(equal);
+				resynchronize(left, right);
+				return;
+			}
+			addEqual(equal);
+			List<T> rest = new ArrayList<>();
+			while (hasLeft()) {
+				rest.add(nextLeft());
+			}
+			addRun(Run.Kind.DELETE, rest);
+			rest = new ArrayList<>();
+			while (hasRight()) {
+				rest.add(nextRight());
+			}
+			addRun(Run.Kind.INSERT, rest);
+			m_done = true;
+		}
+
+		/**
+		 * Buffers elements from both sides, until an element read from one side
+		 * matches a buffered element of the other side. The elements before the
+		 * match are reported as deleted and inserted, the remaining buffered
+		 * elements are pushed back.
+		 * 
+		 * @param left
+		 *            First mismatching left element.
+		 * @param right
+		 *            First mismatching right element.
+		 */
+		private void resynchronize(T left, T right) {
+			List<T> leftBuffer = new ArrayList<>();
+			List<T> rightBuffer = new ArrayList<>();
+			leftBuffer.add(left);
+			rightBuffer.add(right);
+			while (true) {
+				boolean read = false;
+				if (hasLeft()) {
+					read = true;
+					leftBuffer.add(nextLeft());
+					int leftMatch = leftBuffer.size() - 1;
+					int rightMatch = indexOf(rightBuffer, leftBuffer.get(leftMatch));
+					if (rightMatch >= 0) {
+						realign(leftBuffer, leftMatch, rightBuffer, rightMatch);
+						return;
+					}
+				}
+				if (hasRight()) {
+					read = true;
+					rightBuffer.add(nextRight());
+					int rightMatch = rightBuffer.size() - 1;
+					int leftMatch = indexOf(leftBuffer, rightBuffer.get(rightMatch));
+					if (leftMatch >= 0) {
+						realign(leftBuffer, leftMatch, rightBuffer, rightMatch);
+						return;
+					}
+				}
+				if (!read) {
+					addRun(Run.Kind.DELETE, leftBuffer);
+					addRun(Run.Kind.INSERT, rightBuffer);
+					m_done = true;
+					return;
+				}
+			}
+		}
+
+		private void realign(List<T> leftBuffer, int leftMatch, List<T> rightBuffer, int rightMatch) {
+			addRun(Run.Kind.DELETE, new ArrayList<>(leftBuffer.subList(0, leftMatch)));
+			addRun(Run.Kind.INSERT, new ArrayList<>(rightBuffer.subList(0, rightMatch)));
+			m_pendingLeft.addAll(0, leftBuffer.subList(leftMatch, leftBuffer.size()));
+			m_pendingRight.addAll(0, rightBuffer.subList(rightMatch, rightBuffer.size()));
+		}
+
+		private int indexOf(List<T> buffer, T element) {
+			for (int i = 0, size = buffer.size(); i < size; i++) {
+				if (comparables(buffer.get(i), element)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void addEqual(long length) {
+			if (length > 0) {
+				m_runs.add(new Run<T>(Run.Kind.EQUAL, m_leftIndex, m_rightIndex, length, Collections.<T>emptyList()));
+				m_leftIndex += length;
+				m_rightIndex += length;
+			}
+		}
+
+		private void addRun(Run.Kind kind, List<T> elements) {
+			if (elements.isEmpty()) {
+				return;
+			}
+			m_runs.add(new Run<T>(kind, m_leftIndex, m_rightIndex, elements.size(),
+					Collections.unmodifiableList(elements)));
+			if (kind == Run.Kind.DELETE) {
+				m_leftIndex += elements.size();
+			} else {
+				m_rightIndex += elements.size();
+			}
+		}
+
+		private boolean hasLeft() {
+			return !m_pendingLeft.isEmpty() || m_left.hasNext();
+		}
+
+		private boolean hasRight() {
+			return !m_pendingRight.isEmpty() || m_right.hasNext();
+		}
+
+		private T nextLeft() {
+			return m_pendingLeft.isEmpty() ? m_left.next() : m_pendingLeft.removeFirst();
+		}
+
+		private T nextRight() {
+			return m_pendingRight.isEmpty() ? m_right.next() : m_pendingRight.removeFirst();
+		}
+	}
+
+	/**
+	 * Open addressing hash table counting primitive values, encoded as
+	 * <code>long</code>, without boxing. The table is presized for the
+	 * expected number of values, up to {@link #MAX_CAPACITY} slots, and grows
+	 * once it is three quarters full.
+	 */
+	private static final class PrimitiveCounts {
+		private static final int MAX_CAPACITY = 1 << 30;
+
+		private long[] m_keys;
+		private int[] m_counts;
+		private boolean[] m_used;
+		private int m_mask;
+		private int m_size;
+
+		private PrimitiveCounts(int expected) {
+			long wanted = Math.max(2L, expected) * 2;
+			allocate(wanted >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit((int) wanted - 1) << 1);
+		}
+
+		private void increment(long key) {
+			int slot = slot(key);
+			if (!m_used[slot]) {
+				if (m_size >= m_keys.length - (m_keys.length >>> 2)) {
+					grow();
+					slot = slot(key);
+				}
+				m_keys[slot] = key;
+				m_used[slot] = true;
+				m_size++;
+			}
+			m_counts[slot]++;
+		}
+
+		/**
+		 * @return False, if the value was not counted often enough.
+		 */
+		private boolean decrement(long key) {
+			int slot = slot(key);
+			return m_used[slot] && --m_counts[slot] >= 0;
+		}
+
+		/**
+		 * @return Slot holding the key, or the free slot the key belongs to.
+		 */
+		private int slot(long key) {
+			long hash = key * 0x9E3779B97F4A7C15L;
+			int slot = (int) (hash ^ (hash >>> 32)) & m_mask;
+			while (m_used[slot] && m_keys[slot] != key) {
+				slot = (slot + 1) & m_mask;
+			}
+			return slot;
+		}
+
+		private void allocate(int capacity) {
+			m_keys = new long[capacity];
+			m_counts = new int[capacity];
+			m_used = new boolean[capacity];
+			m_mask = capacity - 1;
+		}
+
+		/**
+		 * Doubles the capacity and reinserts all counted values.
+		 * 
+		 * @throws IllegalStateException
+		 *             Thrown, if the table is full and cannot grow any further.
+		 */
+		private void grow() {
+			if (m_keys.length >= MAX_CAPACITY) {
+				if (m_size < m_keys.length) {
+					return;
+				}
+				throw new IllegalStateException("Too many distinct values to count.");
+			}
+			long[] keys = m_keys;
+			int[] counts = m_counts;
+			boolean[] used = m_used;
+			allocate(keys.length << 1);
+			for (int i = 0; i < keys.length; i++) {
+				if (used[i]) {
+					int slot = slot(keys[i]);
+					m_keys[slot] = keys[i];
+					m_counts[slot] = counts[i];
+					m_used[slot] = true;
+				}
+			}
+		}
+	}
 }
@@ -23,16 +23,56 @@
  */
 package eu.graphitez.utils.generic;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * @author Janis Schck - janis@schoeck-netz.de
  */
 public class Convert {
+	/**
+	 * Default minimum number of elements for which the parallel conversions
+	 * split the work. Smaller inputs are converted sequentially.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 13;
+	
+	/**
+	 * Handle of <code>Executors.newVirtualThreadPerTaskExecutor()</code>, which
+	 * is available from Java 21 on. <code>null</code>, if not available.
+	 */
+	private static final MethodHandle VIRTUAL_EXECUTOR = virtualExecutor();
+	
 	/**
 	 * Converts a {@link Stream} of elements to a List of R where R is the return type of 
 	 * parameter transformer.
@@ -58,7 +98,18 @@ public class Convert {
 	 * @return List of R elements.
 	 */
 	public static <E, R> List<R> map(Collection<E> collection, Function<? super E, R> transformer) {
-		return map(collection.stream(), transformer);
+		List<R> result = new ArrayList<>(collection.size());
+		if (collection instanceof RandomAccess && collection instanceof List<?>) {
+			List<E> list = (List<E>) collection;
+			for (int i = 0, size = list.size(); i < size; i++) {
+				result.add(transformer.apply(list.get(i)));
+			}
+		} else {
+			for (E element : collection) {
+				result.add(transformer.apply(element));
+			}
+		}
+		return result;
 	}
 	
 	/**
@@ -72,7 +123,11 @@ public class Convert {
 	 * @return List of R elements.
 	 */
 	public static <E, R> List<R> map(E[] array, Function<? super E, R> transformer) {
-		return map(Stream.of(array), transformer);
+		List<R> result = new ArrayList<>(array.length);
+		for (E element : array) {
+			result.add(transformer.apply(element));
+		}
+		return result;
 	}
 	
 	/**
@@ -105,7 +160,18 @@ public class Convert {
 	 * @return List of R elements.
 	 */
 	public static <E, R> List<R> inner(Collection<E> collection, Function<? super E, R> transformer) {
-		return inner(collection.stream(), transformer);
+		List<R> result = new ArrayList<>(collection.size());
+		if (collection instanceof RandomAccess && collection instanceof List<?>) {
+			List<E> list = (List<E>) collection;
+			for (int i = 0, size = list.size(); i < size; i++) {
+				addInner(result, list.get(i), transformer);
+			}
+		} else {
+			for (E element : collection) {
+				addInner(result, element, transformer);
+			}
+		}
+		return result;
 	}
 	
 	/**
@@ -120,6 +186,1218 @@ public class Convert {
 	 * @return List of R elements.
 	 */
 	public static <E, R> List<R> inner(E[] array, Function<? super E, R> transformer) {
-		return inner(Stream.of(array), transformer);
+		List<R> result = new ArrayList<>(array.length);
+		for (E element : array) {
+			addInner(result, element, transformer);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to a List of R where R is the return
+	 * type of parameter transformer, transforming chunks of the elements in
+	 * parallel in the common {@link ForkJoinPool}. Inputs below
+	 * {@link #PARALLEL_THRESHOLD} elements are converted sequentially. The order
+	 * of the elements is preserved. If the transformer throws, the exception is
+	 * rethrown once all chunks have finished.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> mapParallel(List<E> list, Function<? super E, R> transformer) {
+		return mapParallel(list, transformer, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to a List of R where R is the return
+	 * type of parameter transformer, transforming chunks of the elements in
+	 * parallel on the given {@link Executor}. Inputs below <code>threshold</code>
+	 * elements are converted sequentially. The order of the elements is preserved.
+	 * If the transformer throws, the exception is rethrown once all chunks have
+	 * finished.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param executor Executor running the chunks.
+	 * @param threshold Minimum number of elements for a parallel conversion.
+	 * @param <E> {@link List} element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> mapParallel(List<E> list, Function<? super E, R> transformer, Executor executor,
+			int threshold) {
+		return expand(transformParallel(list, transformer, executor, threshold, false));
+	}
+	
+	/**
+	 * Converts an Array of E elements to a List of R where R is the return type of
+	 * parameter transformer, transforming chunks of the elements in parallel in
+	 * the common {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially. The order of the elements is preserved.
+	 * If the transformer throws, the exception is rethrown once all chunks have
+	 * finished.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> mapParallel(E[] array, Function<? super E, R> transformer) {
+		return mapParallel(array, transformer, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+	}
+	
+	/**
+	 * Converts an Array of E elements to a List of R where R is the return type of
+	 * parameter transformer, transforming chunks of the elements in parallel on
+	 * the given {@link Executor}. Inputs below <code>threshold</code> elements are
+	 * converted sequentially. The order of the elements is preserved. If the
+	 * transformer throws, the exception is rethrown once all chunks have finished.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param executor Executor running the chunks.
+	 * @param threshold Minimum number of elements for a parallel conversion.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> mapParallel(E[] array, Function<? super E, R> transformer, Executor executor,
+			int threshold) {
+		return expand(transformParallel(Arrays.asList(array), transformer, executor, threshold, false));
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to a List of R where R is the return
+	 * type of parameter transformer, transforming chunks of the elements in
+	 * parallel in the common {@link ForkJoinPool}. Filters any <code>null</code>
+	 * objects before and after the mapping. Inputs below
+	 * {@link #PARALLEL_THRESHOLD} elements are converted sequentially. The order
+	 * of the elements is preserved. If the transformer throws, the exception is
+	 * rethrown once all chunks have finished.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> innerParallel(List<E> list, Function<? super E, R> transformer) {
+		return innerParallel(list, transformer, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to a List of R where R is the return
+	 * type of parameter transformer, transforming chunks of the elements in
+	 * parallel on the given {@link Executor}. Filters any <code>null</code>
+	 * objects before and after the mapping. Inputs below <code>threshold</code>
+	 * elements are converted sequentially. The order of the elements is preserved.
+	 * If the transformer throws, the exception is rethrown once all chunks have
+	 * finished.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param executor Executor running the chunks.
+	 * @param threshold Minimum number of elements for a parallel conversion.
+	 * @param <E> {@link List} element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> innerParallel(List<E> list, Function<? super E, R> transformer, Executor executor,
+			int threshold) {
+		return compact(transformParallel(list, transformer, executor, threshold, true));
+	}
+	
+	/**
+	 * Converts an Array of E elements to a List of R where R is the return type of
+	 * parameter transformer, transforming chunks of the elements in parallel in
+	 * the common {@link ForkJoinPool}. Filters any <code>null</code> objects
+	 * before and after the mapping. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially. The order of the elements is preserved.
+	 * If the transformer throws, the exception is rethrown once all chunks have
+	 * finished.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> innerParallel(E[] array, Function<? super E, R> transformer) {
+		return innerParallel(array, transformer, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+	}
+	
+	/**
+	 * Converts an Array of E elements to a List of R where R is the return type of
+	 * parameter transformer, transforming chunks of the elements in parallel on
+	 * the given {@link Executor}. Filters any <code>null</code> objects before and
+	 * after the mapping. Inputs below <code>threshold</code> elements are
+	 * converted sequentially. The order of the elements is preserved. If the
+	 * transformer throws, the exception is rethrown once all chunks have finished.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param executor Executor running the chunks.
+	 * @param threshold Minimum number of elements for a parallel conversion.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 */
+	public static <E, R> List<R> innerParallel(E[] array, Function<? super E, R> transformer, Executor executor,
+			int threshold) {
+		return compact(transformParallel(Arrays.asList(array), transformer, executor, threshold, true));
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to a List of R where R is the
+	 * return type of parameter transformer, running each transformation as its own
+	 * task. This suits transformers that block on I/O, as up to
+	 * <code>concurrency</code> transformations wait at the same time.<br>
+	 * On Java 21 and above, the tasks run on virtual threads, otherwise on a pool
+	 * of platform threads bounded by the concurrency. The order of the elements is
+	 * preserved. The first exception thrown by the transformer cancels and
+	 * interrupts all outstanding transformations and is rethrown.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param concurrency Maximum number of concurrent transformations.
+	 * @param <E> {@link Collection} element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 * @throws IllegalArgumentException Thrown, if the concurrency is less than 1.
+	 * @throws CancellationException Thrown, if the calling thread is interrupted.
+	 */
+	public static <E, R> List<R> mapBlocking(Collection<E> collection, Function<? super E, R> transformer,
+			int concurrency) {
+		return expand(transformBlocking(collection.toArray(), transformer, concurrency));
+	}
+	
+	/**
+	 * Converts an Array of E elements to a List of R where R is the return type of
+	 * parameter transformer, running each transformation as its own task. This
+	 * suits transformers that block on I/O, as up to <code>concurrency</code>
+	 * transformations wait at the same time.<br>
+	 * On Java 21 and above, the tasks run on virtual threads, otherwise on a pool
+	 * of platform threads bounded by the concurrency. The order of the elements is
+	 * preserved. The first exception thrown by the transformer cancels and
+	 * interrupts all outstanding transformations and is rethrown.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R. Must be thread-safe.
+	 * @param concurrency Maximum number of concurrent transformations.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return List of R elements.
+	 * @throws IllegalArgumentException Thrown, if the concurrency is less than 1.
+	 * @throws CancellationException Thrown, if the calling thread is interrupted.
+	 */
+	public static <E, R> List<R> mapBlocking(E[] array, Function<? super E, R> transformer, int concurrency) {
+		return expand(transformBlocking(array, transformer, concurrency));
+	}
+	
+	/**
+	 * Creates a read-only view of a {@link List} of E elements as a List of R where R is
+	 * the return type of parameter transformer. No elements are transformed
+	 * until they are accessed.
+	 * Elements are transformed anew on every access, so nothing is allocated
+	 * up front. The view reflects later changes to the source.<br>
+	 * The view implements {@link RandomAccess}, if the source does. Otherwise
+	 * it should be iterated rather than indexed.
+	 * 
+	 * @param list {@link List}, for which to view contained elements.
+	 * @param transformer Function transforming the elements to R. Must be
+	 *            thread-safe, if the view is shared.
+	 * @param <E> {@link List} element type.
+	 * @param <R> return List element type.
+	 * @return Unmodifiable List view of R elements.
+	 */
+	public static <E, R> List<R> view(List<E> list, Function<? super E, R> transformer) {
+		if (list instanceof RandomAccess) {
+			return new RandomAccessView<>(list, transformer);
+		}
+		return new MappedView<>(list, transformer);
+	}
+	
+	/**
+	 * Creates a read-only view of an Array of E elements as a List of R where R is
+	 * the return type of parameter transformer. No elements are transformed
+	 * until they are accessed.
+	 * Elements are transformed anew on every access, so nothing is allocated
+	 * up front. The view reflects later changes to the source.<br>
+	 * The view implements {@link RandomAccess}.
+	 * 
+	 * @param array Array, for which to view contained elements.
+	 * @param transformer Function transforming the elements to R. Must be
+	 *            thread-safe, if the view is shared.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return Unmodifiable List view of R elements.
+	 */
+	public static <E, R> List<R> view(E[] array, Function<? super E, R> transformer) {
+		return new RandomAccessView<>(Arrays.asList(array), transformer);
+	}
+	
+	/**
+	 * Creates a read-only view of a {@link List} of E elements as a List of R where R is
+	 * the return type of parameter transformer. No elements are transformed
+	 * until they are accessed.
+	 * Each element is transformed on its first access and then kept, so it is
+	 * transformed at most once per index, even if accessed concurrently. The
+	 * size of the view is fixed to the size of the source at creation.<br>
+	 * The view implements {@link RandomAccess}, if the source does. Otherwise
+	 * it should be iterated rather than indexed.
+	 * 
+	 * @param list {@link List}, for which to view contained elements.
+	 * @param transformer Function transforming the elements to R. Must be
+	 *            thread-safe, if the view is shared.
+	 * @param <E> {@link List} element type.
+	 * @param <R> return List element type.
+	 * @return Unmodifiable List view of R elements.
+	 */
+	public static <E, R> List<R> viewCached(List<E> list, Function<? super E, R> transformer) {
+		if (list instanceof RandomAccess) {
+			return new RandomAccessCachedView<>(list, transformer);
+		}
+		return new CachedView<>(list, transformer);
+	}
+	
+	/**
+	 * Creates a read-only view of an Array of E elements as a List of R where R is
+	 * the return type of parameter transformer. No elements are transformed
+	 * until they are accessed.
+	 * Each element is transformed on its first access and then kept, so it is
+	 * transformed at most once per index, even if accessed concurrently. The
+	 * size of the view is fixed to the size of the source at creation.<br>
+	 * The view implements {@link RandomAccess}.
+	 * 
+	 * @param array Array, for which to view contained elements.
+	 * @param transformer Function transforming the elements to R. Must be
+	 *            thread-safe, if the view is shared.
+	 * @param <E> Array element type.
+	 * @param <R> return List element type.
+	 * @return Unmodifiable List view of R elements.
+	 */
+	public static <E, R> List<R> viewCached(E[] array, Function<? super E, R> transformer) {
+		return new RandomAccessCachedView<>(Arrays.asList(array), transformer);
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to an exactly sized int Array, without
+	 * boxing the results.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int.
+	 * @param <E> {@link Collection} element type.
+	 * @return int Array of the transformed elements.
+	 */
+	public static <E> int[] mapInt(Collection<E> collection, ToIntFunction<? super E> transformer) {
+		int[] result = new int[collection.size()];
+		int i = 0;
+		for (E element : collection) {
+			result[i++] = transformer.applyAsInt(element);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized int Array, without
+	 * boxing the results.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int.
+	 * @param <E> Array element type.
+	 * @return int Array of the transformed elements.
+	 */
+	public static <E> int[] mapInt(E[] array, ToIntFunction<? super E> transformer) {
+		int[] result = new int[array.length];
+		for (int i = 0; i < array.length; i++) {
+			result[i] = transformer.applyAsInt(array[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to an exactly sized int Array, without
+	 * boxing the results. <code>null</code> elements are skipped.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int.
+	 * @param <E> {@link Collection} element type.
+	 * @return int Array of the transformed non-null elements.
+	 */
+	public static <E> int[] innerInt(Collection<E> collection, ToIntFunction<? super E> transformer) {
+		int[] result = new int[collection.size()];
+		int count = 0;
+		for (E element : collection) {
+			if (element != null) {
+				result[count++] = transformer.applyAsInt(element);
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized int Array, without
+	 * boxing the results. <code>null</code> elements are skipped.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int.
+	 * @param <E> Array element type.
+	 * @return int Array of the transformed non-null elements.
+	 */
+	public static <E> int[] innerInt(E[] array, ToIntFunction<? super E> transformer) {
+		int[] result = new int[array.length];
+		int count = 0;
+		for (E element : array) {
+			if (element != null) {
+				result[count++] = transformer.applyAsInt(element);
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to an exactly sized int Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int. Must be
+	 *            thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @return int Array of the transformed elements.
+	 */
+	public static <E> int[] mapIntParallel(List<E> list, ToIntFunction<? super E> transformer) {
+		if (list.size() < PARALLEL_THRESHOLD) {
+			return mapInt(list, transformer);
+		}
+		List<E> source = list instanceof RandomAccess ? list : new ArrayList<>(list);
+		int[] result = new int[source.size()];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsInt(source.get(i)));
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized int Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int. Must be
+	 *            thread-safe.
+	 * @param <E> Array element type.
+	 * @return int Array of the transformed elements.
+	 */
+	public static <E> int[] mapIntParallel(E[] array, ToIntFunction<? super E> transformer) {
+		if (array.length < PARALLEL_THRESHOLD) {
+			return mapInt(array, transformer);
+		}
+		int[] result = new int[array.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsInt(array[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to an exactly sized int Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. <code>null</code> elements are skipped. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int. Must be
+	 *            thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @return int Array of the transformed non-null elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> int[] innerIntParallel(List<E> list, ToIntFunction<? super E> transformer) {
+		if (list.size() < PARALLEL_THRESHOLD) {
+			return innerInt(list, transformer);
+		}
+		Object[] source = present(list, list.size());
+		int[] result = new int[source.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsInt((E) source[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized int Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. <code>null</code> elements are skipped. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to int. Must be
+	 *            thread-safe.
+	 * @param <E> Array element type.
+	 * @return int Array of the transformed non-null elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> int[] innerIntParallel(E[] array, ToIntFunction<? super E> transformer) {
+		if (array.length < PARALLEL_THRESHOLD) {
+			return innerInt(array, transformer);
+		}
+		Object[] source = present(Arrays.asList(array), array.length);
+		int[] result = new int[source.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsInt((E) source[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to an exactly sized long Array, without
+	 * boxing the results.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long.
+	 * @param <E> {@link Collection} element type.
+	 * @return long Array of the transformed elements.
+	 */
+	public static <E> long[] mapLong(Collection<E> collection, ToLongFunction<? super E> transformer) {
+		long[] result = new long[collection.size()];
+		int i = 0;
+		for (E element : collection) {
+			result[i++] = transformer.applyAsLong(element);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized long Array, without
+	 * boxing the results.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long.
+	 * @param <E> Array element type.
+	 * @return long Array of the transformed elements.
+	 */
+	public static <E> long[] mapLong(E[] array, ToLongFunction<? super E> transformer) {
+		long[] result = new long[array.length];
+		for (int i = 0; i < array.length; i++) {
+			result[i] = transformer.applyAsLong(array[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to an exactly sized long Array, without
+	 * boxing the results. <code>null</code> elements are skipped.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long.
+	 * @param <E> {@link Collection} element type.
+	 * @return long Array of the transformed non-null elements.
+	 */
+	public static <E> long[] innerLong(Collection<E> collection, ToLongFunction<? super E> transformer) {
+		long[] result = new long[collection.size()];
+		int count = 0;
+		for (E element : collection) {
+			if (element != null) {
+				result[count++] = transformer.applyAsLong(element);
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized long Array, without
+	 * boxing the results. <code>null</code> elements are skipped.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long.
+	 * @param <E> Array element type.
+	 * @return long Array of the transformed non-null elements.
+	 */
+	public static <E> long[] innerLong(E[] array, ToLongFunction<? super E> transformer) {
+		long[] result = new long[array.length];
+		int count = 0;
+		for (E element : array) {
+			if (element != null) {
+				result[count++] = transformer.applyAsLong(element);
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to an exactly sized long Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long. Must be
+	 *            thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @return long Array of the transformed elements.
+	 */
+	public static <E> long[] mapLongParallel(List<E> list, ToLongFunction<? super E> transformer) {
+		if (list.size() < PARALLEL_THRESHOLD) {
+			return mapLong(list, transformer);
+		}
+		List<E> source = list instanceof RandomAccess ? list : new ArrayList<>(list);
+		long[] result = new long[source.size()];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsLong(source.get(i)));
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized long Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long. Must be
+	 *            thread-safe.
+	 * @param <E> Array element type.
+	 * @return long Array of the transformed elements.
+	 */
+	public static <E> long[] mapLongParallel(E[] array, ToLongFunction<? super E> transformer) {
+		if (array.length < PARALLEL_THRESHOLD) {
+			return mapLong(array, transformer);
+		}
+		long[] result = new long[array.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsLong(array[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to an exactly sized long Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. <code>null</code> elements are skipped. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long. Must be
+	 *            thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @return long Array of the transformed non-null elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> long[] innerLongParallel(List<E> list, ToLongFunction<? super E> transformer) {
+		if (list.size() < PARALLEL_THRESHOLD) {
+			return innerLong(list, transformer);
+		}
+		Object[] source = present(list, list.size());
+		long[] result = new long[source.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsLong((E) source[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized long Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. <code>null</code> elements are skipped. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to long. Must be
+	 *            thread-safe.
+	 * @param <E> Array element type.
+	 * @return long Array of the transformed non-null elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> long[] innerLongParallel(E[] array, ToLongFunction<? super E> transformer) {
+		if (array.length < PARALLEL_THRESHOLD) {
+			return innerLong(array, transformer);
+		}
+		Object[] source = present(Arrays.asList(array), array.length);
+		long[] result = new long[source.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsLong((E) source[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to an exactly sized double Array, without
+	 * boxing the results.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double.
+	 * @param <E> {@link Collection} element type.
+	 * @return double Array of the transformed elements.
+	 */
+	public static <E> double[] mapDouble(Collection<E> collection, ToDoubleFunction<? super E> transformer) {
+		double[] result = new double[collection.size()];
+		int i = 0;
+		for (E element : collection) {
+			result[i++] = transformer.applyAsDouble(element);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized double Array, without
+	 * boxing the results.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double.
+	 * @param <E> Array element type.
+	 * @return double Array of the transformed elements.
+	 */
+	public static <E> double[] mapDouble(E[] array, ToDoubleFunction<? super E> transformer) {
+		double[] result = new double[array.length];
+		for (int i = 0; i < array.length; i++) {
+			result[i] = transformer.applyAsDouble(array[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link Collection} of E elements to an exactly sized double Array, without
+	 * boxing the results. <code>null</code> elements are skipped.
+	 * 
+	 * @param collection {@link Collection}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double.
+	 * @param <E> {@link Collection} element type.
+	 * @return double Array of the transformed non-null elements.
+	 */
+	public static <E> double[] innerDouble(Collection<E> collection, ToDoubleFunction<? super E> transformer) {
+		double[] result = new double[collection.size()];
+		int count = 0;
+		for (E element : collection) {
+			if (element != null) {
+				result[count++] = transformer.applyAsDouble(element);
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized double Array, without
+	 * boxing the results. <code>null</code> elements are skipped.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double.
+	 * @param <E> Array element type.
+	 * @return double Array of the transformed non-null elements.
+	 */
+	public static <E> double[] innerDouble(E[] array, ToDoubleFunction<? super E> transformer) {
+		double[] result = new double[array.length];
+		int count = 0;
+		for (E element : array) {
+			if (element != null) {
+				result[count++] = transformer.applyAsDouble(element);
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to an exactly sized double Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double. Must be
+	 *            thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @return double Array of the transformed elements.
+	 */
+	public static <E> double[] mapDoubleParallel(List<E> list, ToDoubleFunction<? super E> transformer) {
+		if (list.size() < PARALLEL_THRESHOLD) {
+			return mapDouble(list, transformer);
+		}
+		List<E> source = list instanceof RandomAccess ? list : new ArrayList<>(list);
+		double[] result = new double[source.size()];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsDouble(source.get(i)));
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized double Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double. Must be
+	 *            thread-safe.
+	 * @param <E> Array element type.
+	 * @return double Array of the transformed elements.
+	 */
+	public static <E> double[] mapDoubleParallel(E[] array, ToDoubleFunction<? super E> transformer) {
+		if (array.length < PARALLEL_THRESHOLD) {
+			return mapDouble(array, transformer);
+		}
+		double[] result = new double[array.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsDouble(array[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts a {@link List} of E elements to an exactly sized double Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. <code>null</code> elements are skipped. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param list {@link List}, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double. Must be
+	 *            thread-safe.
+	 * @param <E> {@link List} element type.
+	 * @return double Array of the transformed non-null elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> double[] innerDoubleParallel(List<E> list, ToDoubleFunction<? super E> transformer) {
+		if (list.size() < PARALLEL_THRESHOLD) {
+			return innerDouble(list, transformer);
+		}
+		Object[] source = present(list, list.size());
+		double[] result = new double[source.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsDouble((E) source[i]));
+		return result;
+	}
+	
+	/**
+	 * Converts an Array of E elements to an exactly sized double Array, without
+	 * boxing the results, transforming the elements in parallel in the common
+	 * {@link ForkJoinPool}. <code>null</code> elements are skipped. Inputs below {@link #PARALLEL_THRESHOLD}
+	 * elements are converted sequentially.
+	 * 
+	 * @param array Array, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to double. Must be
+	 *            thread-safe.
+	 * @param <E> Array element type.
+	 * @return double Array of the transformed non-null elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> double[] innerDoubleParallel(E[] array, ToDoubleFunction<? super E> transformer) {
+		if (array.length < PARALLEL_THRESHOLD) {
+			return innerDouble(array, transformer);
+		}
+		Object[] source = present(Arrays.asList(array), array.length);
+		double[] result = new double[source.length];
+		fillParallel(result.length, i -> result[i] = transformer.applyAsDouble((E) source[i]));
+		return result;
+	}
+	
+	/**
+	 * Transforms an element and adds the result to a list, skipping
+	 * <code>null</code> elements and results.
+	 * 
+	 * @param result List, to which the transformed element is added.
+	 * @param element Element to be transformed.
+	 * @param transformer Function transforming the element to R.
+	 */
+	private static <E, R> void addInner(List<R> result, E element, Function<? super E, R> transformer) {
+		if (element != null) {
+			R transformed = transformer.apply(element);
+			if (transformed != null) {
+				result.add(transformed);
+			}
+		}
+	}
+	
+	/**
+	 * Transforms the elements of a list into an array of the same size, in
+	 * parallel chunks, if the list has at least <code>threshold</code>
+	 * elements. Lists not implementing {@link RandomAccess} are copied first.
+	 * 
+	 * @param list List, for which to convert contained elements.
+	 * @param transformer Function transforming the elements to R.
+	 * @param executor Executor running the chunks.
+	 * @param threshold Minimum number of elements for a parallel conversion.
+	 * @param inner If true, <code>null</code> elements are not transformed.
+	 * @return Array of the transformed elements, in the order of the list.
+	 */
+	private static <E, R> Object[] transformParallel(List<E> list, Function<? super E, R> transformer,
+			Executor executor, int threshold, boolean inner) {
+		List<?> source = list instanceof RandomAccess ? list : Arrays.asList(list.toArray());
+		int size = source.size();
+		Object[] result = new Object[size];
+		if (size < Math.max(threshold, 2)) {
+			transformRange(source, result, 0, size, transformer, inner);
+			return result;
+		}
+		int chunks = Math.min(size, Runtime.getRuntime().availableProcessors() * 4);
+		int chunkSize = (size + chunks - 1) / chunks;
+		List<CompletableFuture<Void>> futures = new ArrayList<>(chunks);
+		for (int from = 0; from < size; from += chunkSize) {
+			int start = from;
+			int end = Math.min(size, from + chunkSize);
+			futures.add(CompletableFuture.runAsync(
+					() -> transformRange(source, result, start, end, transformer, inner), executor));
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+		return result;
+	}
+	
+	/**
+	 * Transforms a range of a list into the same range of an array.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E, R> void transformRange(List<?> source, Object[] result, int from, int to,
+			Function<? super E, R> transformer, boolean inner) {
+		for (int i = from; i < to; i++) {
+			E element = (E) source.get(i);
+			if (!inner || element != null) {
+				result[i] = transformer.apply(element);
+			}
+		}
+	}
+	
+	/**
+	 * Runs a writer for each index of a result in parallel in the common
+	 * {@link ForkJoinPool}.
+	 * 
+	 * @param size Number of indices.
+	 * @param writer Consumer writing the result at an index.
+	 */
+	private static void fillParallel(int size, IntConsumer writer) {
+		IntStream.range(0, size).parallel().forEach(writer);
+	}
+	
+	/**
+	 * Copies the non-null elements into an array.
+	 * 
+	 * @param elements Elements to be copied.
+	 * @param size Number of elements.
+	 * @return Exactly sized array of the non-null elements.
+	 */
+	private static Object[] present(Iterable<?> elements, int size) {
+		Object[] result = new Object[size];
+		int count = 0;
+		for (Object element : elements) {
+			if (element != null) {
+				result[count++] = element;
+			}
+		}
+		return count == size ? result : Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * Copies transformed elements into a List.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> List<R> expand(Object[] transformed) {
+		return new ArrayList<>((List<R>) Arrays.asList(transformed));
+	}
+	
+	/**
+	 * Copies the non-null transformed elements into a List.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> List<R> compact(Object[] transformed) {
+		List<R> result = new ArrayList<>(transformed.length);
+		for (Object element : transformed) {
+			if (element != null) {
+				result.add((R) element);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Transforms the elements of an array into an array of the same size,
+	 * running up to <code>concurrency</code> transformations at a time.
+	 * 
+	 * @param source Elements to be transformed.
+	 * @param transformer Function transforming the elements to R.
+	 * @param concurrency Maximum number of concurrent transformations.
+	 * @return Array of the transformed elements, in the order of the source.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E, R> Object[] transformBlocking(Object[] source, Function<? super E, R> transformer,
+			int concurrency) {
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Concurrency must be at least 1, but was " + concurrency + ".");
+		}
+		Object[] result = new Object[source.length];
+		Semaphore permits = new Semaphore(concurrency);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		ExecutorService executor = newBlockingExecutor(concurrency);
+		try {
+			CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+			int submitted = 0;
+			while (submitted < source.length) {
+				permits.acquire();
+				if (failure.get() != null) {
+					break;
+				}
+				int index = submitted++;
+				completion.submit(() -> {
+					try {
+						result[index] = transformer.apply((E) source[index]);
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						permits.release();
+					}
+					return null;
+				});
+			}
+			for (int completed = 0; completed < submitted && failure.get() == null; completed++) {
+				completion.take();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while converting elements.");
+		} finally {
+			executor.shutdownNow();
+		}
+		Throwable cause = failure.get();
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		} else if (cause instanceof Error) {
+			throw (Error) cause;
+		} else if (cause != null) {
+			throw new IllegalStateException(cause);
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates an executor for blocking transformations, running each task on a
+	 * virtual thread, if available.
+	 * 
+	 * @param concurrency Maximum number of concurrent tasks.
+	 * @return New executor, to be shut down by the caller.
+	 */
+	private static ExecutorService newBlockingExecutor(int concurrency) {
+		if (VIRTUAL_EXECUTOR != null) {
+			try {
+				return (ExecutorService) VIRTUAL_EXECUTOR.invokeExact();
+			} catch (Throwable e) {
+				// fall back to platform threads.
+			}
+		}
+		return Executors.newFixedThreadPool(concurrency);
+	}
+	
+	/**
+	 * Looks up <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+	 * 
+	 * @return Handle of the method, or <code>null</code>, if not available.
+	 */
+	private static MethodHandle virtualExecutor() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * List view, transforming the elements of a source list on every access.
+	 * Iteration walks the source by its own iterator, so sequential sources
+	 * are not indexed.
+	 * 
+	 * @param <E> source element type.
+	 * @param <R> view element type.
+	 */
+	private static class MappedView<E, R> extends AbstractList<R> {
+		
+		protected final List<E> m_source;
+		
+		protected final Function<? super E, R> m_transformer;
+		
+		private MappedView(List<E> source, Function<? super E, R> transformer) {
+			m_source = Objects.requireNonNull(source);
+			m_transformer = Objects.requireNonNull(transformer);
+		}
+		
+		/**
+		 * Transforms an element of the source, that has already been read.
+		 * 
+		 * @param index Index of the element in the source.
+		 * @param element Element of the source.
+		 * @return Transformed element.
+		 */
+		protected R transform(int index, E element) {
+			return m_transformer.apply(element);
+		}
+		
+		@Override
+		public R get(int index) {
+			return m_transformer.apply(m_source.get(index));
+		}
+		
+		@Override
+		public int size() {
+			return m_source.size();
+		}
+		
+		@Override
+		public Iterator<R> iterator() {
+			return listIterator(0);
+		}
+		
+		@Override
+		public ListIterator<R> listIterator(int index) {
+			ListIterator<E> source = m_source.listIterator(index);
+			return new ListIterator<R>() {
+				
+				@Override
+				public boolean hasNext() {
+					return source.hasNext() && source.nextIndex() < size();
+				}
+				
+				@Override
+				public R next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int next = source.nextIndex();
+					return transform(next, source.next());
+				}
+				
+				@Override
+				public boolean hasPrevious() {
+					return source.hasPrevious();
+				}
+				
+				@Override
+				public R previous() {
+					int previous = source.previousIndex();
+					return transform(previous, source.previous());
+				}
+				
+				@Override
+				public int nextIndex() {
+					return source.nextIndex();
+				}
+				
+				@Override
+				public int previousIndex() {
+					return source.previousIndex();
+				}
+				
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+				
+				@Override
+				public void set(R e) {
+					throw new UnsupportedOperationException();
+				}
+				
+				@Override
+				public void add(R e) {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+	
+	/**
+	 * {@link MappedView} of a source list implementing {@link RandomAccess}.
+	 * 
+	 * @param <E> source element type.
+	 * @param <R> view element type.
+	 */
+	private static final class RandomAccessView<E, R> extends MappedView<E, R> implements RandomAccess {
+		
+		private RandomAccessView(List<E> source, Function<? super E, R> transformer) {
+			super(source, transformer);
+		}
+	}
+	
+	/**
+	 * List view, transforming each element of a source list on its first
+	 * access and keeping the result. Cached elements are returned without
+	 * accessing the source. First accesses are guarded by one of a few locks,
+	 * chosen by index, so each element is transformed at most once, while
+	 * different elements are mostly transformed concurrently.
+	 * 
+	 * @param <E> source element type.
+	 * @param <R> view element type.
+	 */
+	private static class CachedView<E, R> extends MappedView<E, R> {
+		
+		/**
+		 * Number of locks guarding first accesses. Must be a power of two.
+		 */
+		private static final int LOCK_STRIPES = 32;
+		
+		/**
+		 * Marks cached <code>null</code> results. Elements, which have not yet
+		 * been transformed, are <code>null</code> in the cache.
+		 */
+		private static final Object NULL = new Object();
+		
+		private final AtomicReferenceArray<Object> m_cache;
+		
+		private final Object[] m_locks = new Object[LOCK_STRIPES];
+		
+		private CachedView(List<E> source, Function<? super E, R> transformer) {
+			super(source, transformer);
+			m_cache = new AtomicReferenceArray<>(source.size());
+			for (int i = 0; i < LOCK_STRIPES; i++) {
+				m_locks[i] = new Object();
+			}
+		}
+		
+		@Override
+		protected R transform(int index, E element) {
+			Object cached = m_cache.get(index);
+			return unmask(cached != null ? cached : load(index, element, true));
+		}
+		
+		@Override
+		public R get(int index) {
+			Object cached = m_cache.get(index);
+			return unmask(cached != null ? cached : load(index, null, false));
+		}
+		
+		@Override
+		public int size() {
+			return m_cache.length();
+		}
+		
+		/**
+		 * Transforms and stores an element, unless another thread has stored
+		 * it while waiting for the lock.
+		 * 
+		 * @param index Index of the element.
+		 * @param element Element of the source, if already read.
+		 * @param read If false, the element is read from the source.
+		 * @return Stored, masked element.
+		 */
+		private Object load(int index, E element, boolean read) {
+			synchronized (m_locks[index & (LOCK_STRIPES - 1)]) {
+				Object cached = m_cache.get(index);
+				if (cached == null) {
+					R transformed = m_transformer.apply(read ? element : m_source.get(index));
+					cached = transformed == null ? NULL : transformed;
+					m_cache.set(index, cached);
+				}
+				return cached;
+			}
+		}
+		
+		@SuppressWarnings("unchecked")
+		private static <R> R unmask(Object cached) {
+			return cached == NULL ? null : (R) cached;
+		}
+	}
+	
+	/**
+	 * {@link CachedView} of a source list implementing {@link RandomAccess}.
+	 * 
+	 * @param <E> source element type.
+	 * @param <R> view element type.
+	 */
+	private static final class RandomAccessCachedView<E, R> extends CachedView<E, R> implements RandomAccess {
+		
+		private RandomAccessCachedView(List<E> source, Function<? super E, R> transformer) {
+			super(source, transformer);
+		}
 	}
 }
@@ -0,0 +1,291 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 TreffnonX (Janis Schck)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package eu.graphitez.utils.generic;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact, order-sensitive digest of a sequence of elements, consisting of
+ * its length and a 64 bit polynomial rolling hash over the hash codes of its
+ * elements.<br>
+ * Sequences with different fingerprints never match pairwise, so comparing
+ * fingerprints rejects most mismatches in constant time. Equal fingerprints do
+ * not prove equality; a full comparison is still required. This relies on the
+ * elements' {@link Object#hashCode()} being consistent with the equality
+ * applied by the comparison, which holds for most Comparables.<br>
+ * A fingerprint can be updated incrementally, by appending or replacing
+ * elements, instead of being recomputed.
+ * 
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public final class Fingerprint {
+	/**
+	 * Base of the polynomial hash. Any odd constant works, this one spreads
+	 * well.
+	 */
+	private static final long BASE = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Weak cache of fingerprints keyed by the identity of their collections.
+	 */
+	private static final Map<IdentityKey, Fingerprint> CACHE = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+	private long m_hash;
+	private long m_size;
+
+	private Fingerprint() {
+	}
+
+	/**
+	 * @return Fingerprint of an empty sequence.
+	 */
+	public static Fingerprint empty() {
+		return new Fingerprint();
+	}
+
+	/**
+	 * Computes the fingerprint of the elements of an Iterable.
+	 * 
+	 * @param iterable
+	 *            Iterable to fingerprint.
+	 * @return Fingerprint of the elements.
+	 */
+	public static Fingerprint of(Iterable<?> iterable) {
+		Fingerprint fingerprint = new Fingerprint();
+		long hash = 0;
+		long size = 0;
+		for (Object element : iterable) {
+			hash = hash * BASE + mix(element);
+			size++;
+		}
+		fingerprint.m_hash = hash;
+		fingerprint.m_size = size;
+		return fingerprint;
+	}
+
+	/**
+	 * Computes the fingerprint of the elements of an array.
+	 * 
+	 * @param array
+	 *            Array to fingerprint.
+	 * @return Fingerprint of the elements.
+	 */
+	public static Fingerprint of(Object[] array) {
+		return of(Arrays.asList(array));
+	}
+
+	/**
+	 * Returns the cached fingerprint of a collection, computing it on first
+	 * access. Threads computing the same fingerprint concurrently all return
+	 * the one cached first. The cache is keyed by the identity of the collection and does
+	 * not keep it from being garbage collected.<br>
+	 * The cached fingerprint is not updated automatically. If the collection
+	 * is modified, either update the returned fingerprint accordingly, or
+	 * {@link #invalidate(Collection)} it.
+	 * 
+	 * @param collection
+	 *            Collection to fingerprint.
+	 * @return Cached fingerprint of the collection.
+	 */
+	public static Fingerprint cached(Collection<?> collection) {
+		expunge();
+		Fingerprint cached = CACHE.get(new IdentityKey(collection, null));
+		if (cached != null) {
+			return cached;
+		}
+		// computed outside of the map, as walking the collection would block its bin.
+		Fingerprint computed = of(collection);
+		cached = CACHE.putIfAbsent(new IdentityKey(collection, QUEUE), computed);
+		return cached != null ? cached : computed;
+	}
+
+	/**
+	 * Removes the cached fingerprint of a collection, if any.
+	 * 
+	 * @param collection
+	 *            Collection, for which to discard the fingerprint.
+	 */
+	public static void invalidate(Collection<?> collection) {
+		CACHE.remove(new IdentityKey(collection, null));
+		expunge();
+	}
+
+	/**
+	 * Updates this fingerprint as if an element was appended to the sequence.
+	 * 
+	 * @param element
+	 *            Appended element.
+	 * @return This Fingerprint.
+	 */
+	public synchronized Fingerprint append(Object element) {
+		m_hash = m_hash * BASE + mix(element);
+		m_size++;
+		return this;
+	}
+
+	/**
+	 * Updates this fingerprint as if an element of the sequence was replaced.
+	 * 
+	 * @param index
+	 *            Index of the replaced element.
+	 * @param previous
+	 *            Element previously at the index.
+	 * @param element
+	 *            Element now at the index.
+	 * @return This Fingerprint.
+	 * @throws IndexOutOfBoundsException
+	 *             Thrown, if the index is not within the sequence.
+	 */
+	public synchronized Fingerprint replace(long index, Object previous, Object element) {
+		if (index < 0 || index >= m_size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + m_size);
+		}
+		m_hash += (mix(element) - mix(previous)) * power(m_size - 1 - index);
+		return this;
+	}
+
+	/**
+	 * @return Number of elements of the sequence.
+	 */
+	public synchronized long getSize() {
+		return m_size;
+	}
+
+	/**
+	 * @return Hash of the sequence.
+	 */
+	public synchronized long getHash() {
+		return m_hash;
+	}
+
+	/**
+	 * Checks, whether the sequences of two fingerprints may match.
+	 * 
+	 * @param other
+	 *            Other fingerprint.
+	 * @return False, if the sequences certainly differ.
+	 */
+	public boolean matches(Fingerprint other) {
+		if (this == other) {
+			return true;
+		}
+		long size;
+		long hash;
+		synchronized (this) {
+			size = m_size;
+			hash = m_hash;
+		}
+		synchronized (other) {
+			return size == other.m_size && hash == other.m_hash;
+		}
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		return object instanceof Fingerprint && matches((Fingerprint) object);
+	}
+
+	@Override
+	public synchronized int hashCode() {
+		return Long.hashCode(m_hash) * 31 + Long.hashCode(m_size);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Fingerprint[" + m_size + ", " + Long.toHexString(m_hash) + "]";
+	}
+
+	/**
+	 * Spreads the hash code of an element over 64 bits.
+	 */
+	private static long mix(Object element) {
+		long hash = Objects.hashCode(element);
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	/**
+	 * @return The base raised to the given exponent, modulo 2^64.
+	 */
+	private static long power(long exponent) {
+		long result = 1;
+		long base = BASE;
+		while (exponent > 0) {
+			if ((exponent & 1) != 0) {
+				result *= base;
+			}
+			base *= base;
+			exponent >>>= 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the cache entries of collections garbage collected meanwhile.
+	 */
+	private static void expunge() {
+		Reference<?> reference;
+		while ((reference = QUEUE.poll()) != null) {
+			CACHE.remove(reference);
+		}
+	}
+
+	/**
+	 * Weak cache key comparing its referent by identity.
+	 */
+	private static final class IdentityKey extends WeakReference<Object> {
+		private final int m_hash;
+
+		private IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			m_hash = System.identityHashCode(referent);
+		}
+
+		@Override
+		public int hashCode() {
+			return m_hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof IdentityKey)) {
+				return false;
+			}
+			Object referent = get();
+			return referent != null && referent == ((IdentityKey) object).get();
+		}
+	}
+}
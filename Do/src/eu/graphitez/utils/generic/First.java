@@ -23,8 +23,16 @@
  */
 package eu.graphitez.utils.generic;
 
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 /**
@@ -35,24 +43,34 @@ import java.util.function.Supplier;
  */
 public class First<T> implements Preparable<T> {
 	/**
-	 * Chain of executables run after one another, until a non-empty Optional is
-	 * returned.
+	 * Initial capacity of the option array. Most cascades hold few options.
 	 */
-	protected LinkedList<OptionalProvider<T>> m_options = new LinkedList<>();
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Chain of executables run after one another, until a non-null value is
+	 * returned. Only the first {@link #m_count} slots are in use.
+	 */
+	protected Preparable<T>[] m_options = newOptions(INITIAL_CAPACITY);
+
+	/**
+	 * Number of options in the cascade.
+	 */
+	protected int m_count;
 
 	/**
 	 * Constructors.
 	 */
 	protected First(Supplier<T> supplier) {
-		m_options.add(OptionalProvider.of(supplier));
+		add(OptionalProvider.of(supplier));
 	}
 
 	protected First(Runnable runnable) {
-		m_options.add(OptionalProvider.of(runnable));
+		add(OptionalProvider.of(runnable));
 	}
 
 	protected First(T object) {
-		m_options.add(OptionalProvider.of(object));
+		add(OptionalProvider.of(object));
 	}
 
 	/**
@@ -119,7 +137,7 @@ public class First<T> implements Preparable<T> {
 	 * @return This Either-Object.
 	 */
 	public First<T> or(Supplier<T> supplier) {
-		m_options.add(OptionalProvider.of(supplier));
+		add(OptionalProvider.of(supplier));
 		return this;
 	}
 
@@ -136,7 +154,7 @@ public class First<T> implements Preparable<T> {
 	 * @return This Either-Object.
 	 */
 	public First<T> or(Runnable runnable) {
-		m_options.add(OptionalProvider.of(runnable));
+		add(OptionalProvider.of(runnable));
 		return this;
 	}
 
@@ -153,7 +171,7 @@ public class First<T> implements Preparable<T> {
 	 * @return This Either-Object.
 	 */
 	public First<T> or(T object) {
-		m_options.add(OptionalProvider.of(object));
+		add(OptionalProvider.of(object));
 		return this;
 	}
 
@@ -212,8 +230,9 @@ public class First<T> implements Preparable<T> {
 	}
 
 	/**
-	 * Appends a {@link Supplier} to the end of the cascade that must not return
-	 * {@link Null} and starts it.<br>
+	 * Starts the cascade and falls back to a {@link Supplier} that must not
+	 * return <code>null</code>, if the cascade ends without a value. The
+	 * fallback is not appended to the cascade.<br>
 	 * Usage:<br>
 	 * <code>First.of(supplier/runnable/object).or(supplier/runnable/object)...
 	 * run();</code><br>
@@ -223,16 +242,23 @@ public class First<T> implements Preparable<T> {
 	 * @param supplier
 	 *            Supplier executed next.
 	 * @return First non-null {@link Object} returned by the cascade.
-	 * @throws NullPointerException
+	 * @throws NoSuchElementException
 	 *             Thrown, if the default resolves to <code>null</code>.
 	 */
 	public T orDef(Supplier<T> supplier) {
-		return or(supplier).opt().get();
+		T value = orNull();
+		if (value == null) {
+			value = supplier.get();
+			if (value == null) {
+				throw new NoSuchElementException("No value present");
+			}
+		}
+		return value;
 	}
 
 	/**
-	 * Appends an object as fallback to the end of the cascade and starts
-	 * it.<br>
+	 * Starts the cascade and falls back to an object, if the cascade ends
+	 * without a value. The fallback is not appended to the cascade.<br>
 	 * Usage:<br>
 	 * <code>First.of(supplier/runnable/object).or(supplier/runnable/object)...
 	 * run();</code><br>
@@ -242,11 +268,18 @@ public class First<T> implements Preparable<T> {
 	 * @param object
 	 *            Object checked first.
 	 * @return First non-null {@link Object} returned by the cascade.
-	 * @throws NullPointerException
+	 * @throws NoSuchElementException
 	 *             Thrown, if the default resolves to <code>null</code>.
 	 */
 	public T orDef(T object) {
-		return or(object).opt().get();
+		T value = orNull();
+		if (value == null) {
+			if (object == null) {
+				throw new NoSuchElementException("No value present");
+			}
+			return object;
+		}
+		return value;
 	}
 
 	/**
@@ -259,12 +292,283 @@ public class First<T> implements Preparable<T> {
 	 */
 	@Override
 	public Optional<T> opt() {
-		for (OptionalProvider<T> executable : m_options) {
-			Optional<T> optional = executable.opt();
-			if (optional.isPresent()) {
-				return optional;
+		return Optional.ofNullable(orNull());
+	}
+
+	/**
+	 * Starts the execution of the cascade, and returns the first non-null
+	 * value without wrapping it into an {@link Optional}.
+	 * 
+	 * @return First non-null value encountered, or <code>null</code>, if the
+	 *         cascade ended without a value.
+	 */
+	@Override
+	public T orNull() {
+		Preparable<T>[] options = m_options;
+		for (int i = 0, count = m_count; i < count; i++) {
+			T value = options[i].orNull();
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts all options of the cascade concurrently on the given
+	 * {@link Executor} and returns the first non-empty {@link Optional} in
+	 * cascade order, or an empty Optional, if no non-empty Optionals where
+	 * found.<br>
+	 * See {@link #speculate(Executor, int)}.
+	 * 
+	 * @param executor
+	 *            Executor running the options.
+	 * @return First non-empty Optional in cascade order, or an empty Optional,
+	 *         if no non-empty Optional was found.
+	 */
+	public Optional<T> speculate(Executor executor) {
+		return speculate(executor, m_count);
+	}
+
+	/**
+	 * Starts the first <code>parallelism</code> options of the cascade
+	 * concurrently on the given {@link Executor}, and evaluates any remaining
+	 * options sequentially afterwards, if required.<br>
+	 * The result is the same as the one of {@link #opt()}: the value of the
+	 * option with the highest priority wins, even if an option further down the
+	 * cascade completes earlier. As soon as the result is decided, all options
+	 * still running are cancelled and interrupted. Hence the call takes as long
+	 * as the slowest option actually needed, rather than the sum of them.<br>
+	 * Options evaluated speculatively may run even though an option before them
+	 * returns a value, which makes this mode unsuitable for options with side
+	 * effects. On Java 21 and above, an executor created by
+	 * <code>Executors.newVirtualThreadPerTaskExecutor()</code> is a good fit
+	 * for blocking options.
+	 * 
+	 * @param executor
+	 *            Executor running the options.
+	 * @param parallelism
+	 *            Number of options started concurrently.
+	 * @return First non-empty Optional in cascade order, or an empty Optional,
+	 *         if no non-empty Optional was found.
+	 * @throws CancellationException
+	 *             Thrown, if the calling thread is interrupted while waiting.
+	 */
+	public Optional<T> speculate(Executor executor, int parallelism) {
+		Preparable<T>[] options = m_options;
+		int count = m_count;
+		int started = Math.max(0, Math.min(parallelism, count));
+		@SuppressWarnings("unchecked")
+		FutureTask<T>[] tasks = (FutureTask<T>[]) new FutureTask<?>[started];
+		try {
+			for (int i = 0; i < started; i++) {
+				tasks[i] = new FutureTask<>(options[i]::orNull);
+				executor.execute(tasks[i]);
+			}
+			for (int i = 0; i < started; i++) {
+				T value = await(tasks[i]);
+				if (value != null) {
+					return Optional.of(value);
+				}
+			}
+		} finally {
+			for (FutureTask<T> task : tasks) {
+				if (task != null) {
+					task.cancel(true);
+				}
+			}
+		}
+		for (int i = started; i < count; i++) {
+			T value = options[i].orNull();
+			if (value != null) {
+				return Optional.of(value);
 			}
 		}
 		return Optional.empty();
 	}
+
+	/**
+	 * Starts the execution of the cascade with time limits, and returns the
+	 * first non-empty {@link Optional}, or an empty Optional, if no non-empty
+	 * Optionals where found in time.<br>
+	 * Each option runs on the given {@link Executor} and is granted at most
+	 * <code>optionTimeout</code>, and all options together at most
+	 * <code>budget</code>. An option exceeding its time slice is cancelled and
+	 * interrupted, and the cascade continues with the next option. Once the
+	 * budget is exhausted, the cascade ends.<br>
+	 * A non-positive limit disables the respective limit. If neither limit is
+	 * set, the cascade is evaluated inline as by {@link #opt()}, without
+	 * involving the executor.
+	 * 
+	 * @param executor
+	 *            Executor running the options.
+	 * @param optionTimeout
+	 *            Maximum time granted to each option.
+	 * @param budget
+	 *            Maximum time granted to the whole cascade.
+	 * @param unit
+	 *            Time unit of both limits.
+	 * @return First non-empty Optional encountered in time, or an empty
+	 *         Optional, if no non-empty Optional was found.
+	 * @throws CancellationException
+	 *             Thrown, if the calling thread is interrupted while waiting.
+	 */
+	public Optional<T> within(Executor executor, long optionTimeout, long budget, TimeUnit unit) {
+		if (optionTimeout <= 0 && budget <= 0) {
+			return opt();
+		}
+		long optionNanos = optionTimeout > 0 ? unit.toNanos(optionTimeout) : Long.MAX_VALUE;
+		long deadline = budget > 0 ? System.nanoTime() + unit.toNanos(budget) : 0;
+		Preparable<T>[] options = m_options;
+		for (int i = 0, count = m_count; i < count; i++) {
+			long slice = optionNanos;
+			if (budget > 0) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					break;
+				}
+				slice = Math.min(slice, remaining);
+			}
+			FutureTask<T> task = new FutureTask<>(options[i]::orNull);
+			executor.execute(task);
+			T value = await(task, slice);
+			if (value != null) {
+				return Optional.of(value);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Freezes the current options of the cascade into an immutable
+	 * {@link Preparable}. Options appended to this First afterwards do not
+	 * affect the compiled cascade.<br>
+	 * The compiled cascade holds no mutable state and may be stored in a static
+	 * field and evaluated concurrently, provided the options themselves are
+	 * thread-safe. Evaluating it neither copies, locks nor allocates beyond the
+	 * options themselves.<br>
+	 * Usage:<br>
+	 * <code>static final Preparable&lt;T&gt; CASCADE = First.of(supplier/runnable/object)
+	 * .or(supplier/runnable/object)...compile();</code>
+	 * 
+	 * @return Immutable, thread-safe copy of this cascade.
+	 */
+	public Preparable<T> compile() {
+		return new Compiled<T>(Arrays.copyOf(m_options, m_count));
+	}
+
+	/**
+	 * Appends an option to the end of the cascade, growing the option array if
+	 * required.
+	 * 
+	 * @param option
+	 *            Option to be appended.
+	 */
+	private void add(Preparable<T> option) {
+		if (m_count == m_options.length) {
+			m_options = Arrays.copyOf(m_options, m_count << 1);
+		}
+		m_options[m_count++] = option;
+	}
+
+	/**
+	 * Waits for an option to complete and returns its value. Exceptions thrown
+	 * by the option are rethrown unwrapped.
+	 * 
+	 * @param task
+	 *            Option run asynchronously.
+	 * @return The value returned by the option.
+	 * @throws CancellationException
+	 *             Thrown, if the option was cancelled or the calling thread is
+	 *             interrupted while waiting.
+	 */
+	private static <T> T await(Future<T> task) {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for an option.");
+		} catch (ExecutionException e) {
+			throw rethrow(e.getCause());
+		}
+	}
+
+	/**
+	 * Waits at most the given time for an option to complete and returns its
+	 * value. If the option does not complete in time, it is cancelled and
+	 * <code>null</code> is returned. Exceptions thrown by the option are
+	 * rethrown unwrapped.
+	 * 
+	 * @param task
+	 *            Option run asynchronously.
+	 * @param nanos
+	 *            Maximum time to wait in nanoseconds.
+	 * @return The value returned by the option, or <code>null</code>, if the
+	 *         option timed out.
+	 * @throws CancellationException
+	 *             Thrown, if the calling thread is interrupted while waiting.
+	 */
+	private static <T> T await(Future<T> task, long nanos) {
+		try {
+			return task.get(nanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			task.cancel(true);
+			return null;
+		} catch (InterruptedException e) {
+			task.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for an option.");
+		} catch (ExecutionException e) {
+			throw rethrow(e.getCause());
+		}
+	}
+
+	/**
+	 * Rethrows the cause of a failed option unchecked.
+	 * 
+	 * @param cause
+	 *            Cause of the failure.
+	 * @return Never returns, declared for use in <code>throw</code>
+	 *         statements.
+	 */
+	private static RuntimeException rethrow(Throwable cause) {
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		} else if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		throw new IllegalStateException(cause);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Preparable<T>[] newOptions(int capacity) {
+		return (Preparable<T>[]) new Preparable<?>[capacity];
+	}
+
+	/**
+	 * Immutable cascade created by {@link First#compile()}.
+	 */
+	private static final class Compiled<T> implements Preparable<T> {
+		private final Preparable<T>[] m_options;
+
+		private Compiled(Preparable<T>[] options) {
+			m_options = options;
+		}
+
+		@Override
+		public Optional<T> opt() {
+			return Optional.ofNullable(orNull());
+		}
+
+		@Override
+		public T orNull() {
+			for (Preparable<T> option : m_options) {
+				T value = option.orNull();
+				if (value != null) {
+					return value;
+				}
+			}
+			return null;
+		}
+	}
 }
@@ -0,0 +1,283 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 TreffnonX (Janis Schck)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package eu.graphitez.utils.generic;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous counterpart of {@link First}. Finds the first non-<code>null</code>
+ * value out of several concatenated options, each of which provides a
+ * {@link CompletionStage}.<br>
+ * An option is only started, once the previous option completed without a
+ * value. No thread is blocked while waiting for an option; the cascade
+ * continues on the thread completing the previous stage.
+ * 
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FirstAsync<T> {
+	/**
+	 * Initial capacity of the option array. Most cascades hold few options.
+	 */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Chain of stage suppliers run after one another, until a stage completes
+	 * with a non-null value. Only the first {@link #m_count} slots are in use.
+	 */
+	protected Supplier<? extends CompletionStage<T>>[] m_options = newOptions(INITIAL_CAPACITY);
+
+	/**
+	 * Number of options in the cascade.
+	 */
+	protected int m_count;
+
+	/**
+	 * Constructors.
+	 */
+	protected FirstAsync(Supplier<? extends CompletionStage<T>> supplier) {
+		add(supplier);
+	}
+
+	protected FirstAsync(T object) {
+		add(completed(object));
+	}
+
+	/**
+	 * Starts an asynchronous cascade.<br>
+	 * Usage:<br>
+	 * <code>FirstAsync.of(supplier/object).or(supplier/object)...opt();</code><br>
+	 * The first stage completing with a non-null value will terminate the
+	 * cascade and complete the returned future.
+	 * 
+	 * @param supplier
+	 *            Supplier of the stage started first.
+	 * @return This FirstAsync-Object.
+	 */
+	public static <T> FirstAsync<T> of(Supplier<? extends CompletionStage<T>> supplier) {
+		return new FirstAsync<T>(supplier);
+	}
+
+	/**
+	 * Starts an asynchronous cascade.<br>
+	 * Usage:<br>
+	 * <code>FirstAsync.of(supplier/object).or(supplier/object)...opt();</code><br>
+	 * The first stage completing with a non-null value will terminate the
+	 * cascade and complete the returned future.
+	 * 
+	 * @param object
+	 *            Object checked first.
+	 * @return This FirstAsync-Object.
+	 */
+	public static <T> FirstAsync<T> of(T object) {
+		return new FirstAsync<T>(object);
+	}
+
+	/**
+	 * Appends a stage supplier to the end of the cascade.
+	 * 
+	 * @param supplier
+	 *            Supplier of the stage started next.
+	 * @return This FirstAsync-Object.
+	 */
+	public FirstAsync<T> or(Supplier<? extends CompletionStage<T>> supplier) {
+		add(supplier);
+		return this;
+	}
+
+	/**
+	 * Appends an object as option to the end of the cascade.
+	 * 
+	 * @param object
+	 *            Object checked next.
+	 * @return This FirstAsync-Object.
+	 */
+	public FirstAsync<T> or(T object) {
+		add(completed(object));
+		return this;
+	}
+
+	/**
+	 * Appends a stage supplier to the end of the cascade and starts it.
+	 * 
+	 * @param supplier
+	 *            Supplier of the stage started next.
+	 * @return Future completing with the first non-null value of the cascade,
+	 *         or an empty {@link Optional}, if only null was encountered.
+	 */
+	public CompletableFuture<Optional<T>> orElse(Supplier<? extends CompletionStage<T>> supplier) {
+		return or(supplier).opt();
+	}
+
+	/**
+	 * Appends an object as option to the end of the cascade and starts it.
+	 * 
+	 * @param object
+	 *            Object checked next.
+	 * @return Future completing with the first non-null value of the cascade,
+	 *         or an empty {@link Optional}, if only null was encountered.
+	 */
+	public CompletableFuture<Optional<T>> orElse(T object) {
+		return or(object).opt();
+	}
+
+	/**
+	 * Starts the cascade and falls back to an object, if the cascade ends
+	 * without a value. The fallback is not appended to the cascade.
+	 * 
+	 * @param object
+	 *            Fallback object.
+	 * @return Future completing with the first non-null value of the cascade,
+	 *         or the fallback. The future completes exceptionally with a
+	 *         {@link NoSuchElementException}, if the fallback is
+	 *         <code>null</code> as well.
+	 */
+	public CompletableFuture<T> orDef(T object) {
+		return opt().thenApply(optional -> {
+			if (optional.isPresent()) {
+				return optional.get();
+			} else if (object == null) {
+				throw new NoSuchElementException("No value present");
+			}
+			return object;
+		});
+	}
+
+	/**
+	 * Starts the execution of the cascade. The returned future completes with
+	 * the first non-null value, or an empty {@link Optional}, if all options
+	 * completed without a value. If an option fails, the future completes
+	 * exceptionally and the cascade ends.
+	 * 
+	 * @return Future completing with the first non-empty Optional encountered,
+	 *         or an empty Optional, if no non-null value was found.
+	 */
+	public CompletableFuture<Optional<T>> opt() {
+		CompletableFuture<Optional<T>> result = new CompletableFuture<>();
+		next(m_options, m_count, 0, result);
+		return result;
+	}
+
+	/**
+	 * Runs the cascade from the given index on, until a stage is pending or
+	 * the result is decided. Completed stages of type
+	 * {@link CompletableFuture} are consumed in place to keep the stack flat.
+	 * Subclasses, such as minimal completion stages, are always awaited, as
+	 * they may not support {@link CompletableFuture#isDone()}. No further
+	 * options are started, once the result is done or cancelled.
+	 * 
+	 * @param options
+	 *            Options of the cascade.
+	 * @param count
+	 *            Number of options in use.
+	 * @param index
+	 *            Index of the option started next.
+	 * @param result
+	 *            Future completed with the result of the cascade.
+	 */
+	private static <T> void next(Supplier<? extends CompletionStage<T>>[] options, int count, int index,
+			CompletableFuture<Optional<T>> result) {
+		for (; index < count && !result.isDone(); index++) {
+			CompletionStage<T> stage;
+			try {
+				stage = options[index].get();
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+				return;
+			}
+			if (stage == null) {
+				continue;
+			}
+			if (stage.getClass() == CompletableFuture.class) {
+				CompletableFuture<T> future = (CompletableFuture<T>) stage;
+				if (future.isDone() && !future.isCompletedExceptionally()) {
+					T value = future.join();
+					if (value != null) {
+						result.complete(Optional.of(value));
+						return;
+					}
+					continue;
+				}
+			}
+			int following = index + 1;
+			try {
+				stage.whenComplete((value, failure) -> {
+					if (failure != null) {
+						result.completeExceptionally(failure);
+					} else if (value != null) {
+						result.complete(Optional.of(value));
+					} else {
+						try {
+							next(options, count, following, result);
+						} catch (Throwable e) {
+							result.completeExceptionally(e);
+						}
+					}
+				});
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+			return;
+		}
+		if (index == count) {
+			result.complete(Optional.empty());
+		}
+	}
+
+	/**
+	 * Appends an option to the end of the cascade, growing the option array if
+	 * required.
+	 * 
+	 * @param option
+	 *            Option to be appended.
+	 */
+	private void add(Supplier<? extends CompletionStage<T>> option) {
+		if (m_count == m_options.length) {
+			m_options = Arrays.copyOf(m_options, m_count << 1);
+		}
+		m_options[m_count++] = option;
+	}
+
+	/**
+	 * Wraps an object into a supplier of an already completed stage. The stage
+	 * is created once and shared by all evaluations.
+	 * 
+	 * @param object
+	 *            Object to be wrapped.
+	 * @return Supplier of the completed stage.
+	 */
+	private static <T> Supplier<CompletionStage<T>> completed(T object) {
+		CompletionStage<T> stage = CompletableFuture.completedFuture(object);
+		return () -> stage;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Supplier<? extends CompletionStage<T>>[] newOptions(int capacity) {
+		return (Supplier<? extends CompletionStage<T>>[]) new Supplier<?>[capacity];
+	}
+}
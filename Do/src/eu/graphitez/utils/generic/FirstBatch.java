@@ -0,0 +1,222 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 TreffnonX (Janis Schck)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package eu.graphitez.utils.generic;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Batched counterpart of {@link First}. Resolves the values of many keys
+ * through several concatenated tiers, querying each tier once per batch with
+ * only the keys still unresolved.<br>
+ * Usage:<br>
+ * <code>Map&lt;K, V&gt; values = FirstBatch.of(map/tier).or(map/tier)...orEach(computer)
+ * .resolve(keys);</code><br>
+ * A tier receives the set of unresolved keys and returns a (partial) map of
+ * the values it found. Entries mapping to <code>null</code> and entries of
+ * keys not requested are ignored.
+ * 
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FirstBatch<K, V> {
+	/**
+	 * Initial capacity of the tier array. Most cascades hold few tiers.
+	 */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Chain of tiers queried after one another, until all keys are resolved.
+	 * Only the first {@link #m_count} slots are in use.
+	 */
+	protected Function<? super Set<K>, ? extends Map<? extends K, ? extends V>>[] m_tiers = newTiers(
+			INITIAL_CAPACITY);
+
+	/**
+	 * Number of tiers in the cascade.
+	 */
+	protected int m_count;
+
+	/**
+	 * Constructors.
+	 */
+	protected FirstBatch(Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> tier) {
+		add(tier);
+	}
+
+	protected FirstBatch(Map<? extends K, ? extends V> map) {
+		add(lookup(map));
+	}
+
+	/**
+	 * Starts a batched cascade with a tier queried first.
+	 * 
+	 * @param tier
+	 *            Tier returning the values found for a set of keys.
+	 * @return This FirstBatch-Object.
+	 */
+	public static <K, V> FirstBatch<K, V> of(Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> tier) {
+		return new FirstBatch<K, V>(tier);
+	}
+
+	/**
+	 * Starts a batched cascade with a map looked up first.
+	 * 
+	 * @param map
+	 *            Map looked up first.
+	 * @return This FirstBatch-Object.
+	 */
+	public static <K, V> FirstBatch<K, V> of(Map<? extends K, ? extends V> map) {
+		return new FirstBatch<K, V>(map);
+	}
+
+	/**
+	 * Appends a tier to the end of the cascade.
+	 * 
+	 * @param tier
+	 *            Tier returning the values found for a set of keys.
+	 * @return This FirstBatch-Object.
+	 */
+	public FirstBatch<K, V> or(Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> tier) {
+		add(tier);
+		return this;
+	}
+
+	/**
+	 * Appends a map to the end of the cascade.
+	 * 
+	 * @param map
+	 *            Map looked up next.
+	 * @return This FirstBatch-Object.
+	 */
+	public FirstBatch<K, V> or(Map<? extends K, ? extends V> map) {
+		add(lookup(map));
+		return this;
+	}
+
+	/**
+	 * Appends a tier to the end of the cascade, which computes the values of
+	 * the remaining keys one by one.
+	 * 
+	 * @param computer
+	 *            Function computing the value of a single key.
+	 * @return This FirstBatch-Object.
+	 */
+	public FirstBatch<K, V> orEach(Function<? super K, ? extends V> computer) {
+		add(keys -> {
+			Map<K, V> found = new HashMap<>(capacity(keys.size()));
+			for (K key : keys) {
+				found.put(key, computer.apply(key));
+			}
+			return found;
+		});
+		return this;
+	}
+
+	/**
+	 * Resolves the given keys through the cascade. Each tier is queried at most
+	 * once, with the keys not resolved by the tiers before it. Tiers are
+	 * skipped once all keys are resolved.<br>
+	 * Each tier receives its own unmodifiable snapshot of the keys, so tiers
+	 * may return maps backed by the set or keep it after they returned.
+	 * 
+	 * @param keys
+	 *            Keys to be resolved.
+	 * @return Map of all keys resolved to a non-null value. Keys no tier
+	 *         resolved are absent.
+	 */
+	public Map<K, V> resolve(Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>(capacity(keys.size()));
+		Set<K> missing = new LinkedHashSet<>(keys);
+		for (int i = 0; i < m_count && !missing.isEmpty(); i++) {
+			Map<? extends K, ? extends V> found = m_tiers[i]
+					.apply(Collections.unmodifiableSet(new LinkedHashSet<>(missing)));
+			if (found == null) {
+				continue;
+			}
+			for (Map.Entry<? extends K, ? extends V> entry : found.entrySet()) {
+				if (entry.getValue() != null && missing.remove(entry.getKey())) {
+					result.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Appends a tier to the end of the cascade, growing the tier array if
+	 * required.
+	 * 
+	 * @param tier
+	 *            Tier to be appended.
+	 */
+	private void add(Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> tier) {
+		if (m_count == m_tiers.length) {
+			m_tiers = Arrays.copyOf(m_tiers, m_count << 1);
+		}
+		m_tiers[m_count++] = tier;
+	}
+
+	/**
+	 * Wraps a map into a tier looking up the requested keys.
+	 * 
+	 * @param map
+	 *            Map to be looked up.
+	 * @return Tier returning the values contained in the map.
+	 */
+	private static <K, V> Function<Set<K>, Map<K, V>> lookup(Map<? extends K, ? extends V> map) {
+		return keys -> {
+			Map<K, V> found = new HashMap<>();
+			for (K key : keys) {
+				V value = map.get(key);
+				if (value != null) {
+					found.put(key, value);
+				}
+			}
+			return found;
+		};
+	}
+
+	/**
+	 * Computes the capacity of a {@link HashMap} holding the given number of
+	 * entries without rehashing.
+	 * 
+	 * @param size
+	 *            Expected number of entries.
+	 * @return Initial capacity.
+	 */
+	private static int capacity(int size) {
+		return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Function<? super Set<K>, ? extends Map<? extends K, ? extends V>>[] newTiers(int capacity) {
+		return (Function<? super Set<K>, ? extends Map<? extends K, ? extends V>>[]) new Function<?, ?>[capacity];
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 TreffnonX (Janis Schck)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package eu.graphitez.utils.generic;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Primitive counterpart of {@link First} for <code>long</code> values. Finds the
+ * first value out of several concatenated options, that is not the
+ * <i>absent</i> sentinel, without boxing.<br>
+ * Usage:<br>
+ * <code>long val = FirstLong.of(supplier/value).or(supplier/value)...orDef(def);</code><br>
+ * The sentinel defaults to <code>Long.MIN_VALUE</code> and can be changed by
+ * {@link #absent(long)}.
+ * 
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FirstLong {
+	/**
+	 * Initial capacity of the option array. Most cascades hold few options.
+	 */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Chain of suppliers run after one another, until a value other than the
+	 * sentinel is returned. Only the first {@link #m_count} slots are in use.
+	 */
+	protected LongSupplier[] m_options = new LongSupplier[INITIAL_CAPACITY];
+
+	/**
+	 * Number of options in the cascade.
+	 */
+	protected int m_count;
+
+	/**
+	 * Sentinel marking an absent value.
+	 */
+	protected long m_absent = Long.MIN_VALUE;
+
+	/**
+	 * Constructors.
+	 */
+	protected FirstLong(LongSupplier supplier) {
+		add(supplier);
+	}
+
+	protected FirstLong(long value) {
+		add(() -> value);
+	}
+
+	/**
+	 * Starts a cascade of suppliers which return the first value other than
+	 * the sentinel.
+	 * 
+	 * @param supplier
+	 *            Supplier executed first.
+	 * @return This FirstLong-Object.
+	 */
+	public static FirstLong of(LongSupplier supplier) {
+		return new FirstLong(supplier);
+	}
+
+	/**
+	 * Starts a cascade of suppliers which return the first value other than
+	 * the sentinel.
+	 * 
+	 * @param value
+	 *            Value checked first.
+	 * @return This FirstLong-Object.
+	 */
+	public static FirstLong of(long value) {
+		return new FirstLong(value);
+	}
+
+	/**
+	 * Sets the sentinel marking an absent value. Options returning the
+	 * sentinel are skipped.
+	 * 
+	 * @param sentinel
+	 *            Sentinel marking an absent value.
+	 * @return This FirstLong-Object.
+	 */
+	public FirstLong absent(long sentinel) {
+		m_absent = sentinel;
+		return this;
+	}
+
+	/**
+	 * Appends a supplier to the end of the cascade.
+	 * 
+	 * @param supplier
+	 *            Supplier executed next.
+	 * @return This FirstLong-Object.
+	 */
+	public FirstLong or(LongSupplier supplier) {
+		add(supplier);
+		return this;
+	}
+
+	/**
+	 * Appends a value as option to the end of the cascade.
+	 * 
+	 * @param value
+	 *            Value checked next.
+	 * @return This FirstLong-Object.
+	 */
+	public FirstLong or(long value) {
+		add(() -> value);
+		return this;
+	}
+
+	/**
+	 * Appends a supplier to the end of the cascade and starts it.
+	 * 
+	 * @param supplier
+	 *            Supplier executed next.
+	 * @return OptionalLong containing the first value other than the sentinel,
+	 *         or an empty OptionalLong, if only the sentinel was encountered.
+	 */
+	public OptionalLong orElse(LongSupplier supplier) {
+		return or(supplier).opt();
+	}
+
+	/**
+	 * Appends a value as option to the end of the cascade and starts it.
+	 * 
+	 * @param value
+	 *            Value checked next.
+	 * @return OptionalLong containing the first value other than the sentinel,
+	 *         or an empty OptionalLong, if only the sentinel was encountered.
+	 */
+	public OptionalLong orElse(long value) {
+		return or(value).opt();
+	}
+
+	/**
+	 * Starts the cascade and falls back to a supplier, if the cascade ends
+	 * without a value. The fallback is not appended to the cascade.
+	 * 
+	 * @param supplier
+	 *            Supplier of the fallback value.
+	 * @return First value other than the sentinel, or the fallback value.
+	 */
+	public long orDef(LongSupplier supplier) {
+		long value = orAbsent();
+		return isAbsent(value) ? supplier.getAsLong() : value;
+	}
+
+	/**
+	 * Starts the cascade and falls back to a value, if the cascade ends
+	 * without a value. The fallback is not appended to the cascade.
+	 * 
+	 * @param value
+	 *            Fallback value.
+	 * @return First value other than the sentinel, or the fallback value.
+	 */
+	public long orDef(long value) {
+		long result = orAbsent();
+		return isAbsent(result) ? value : result;
+	}
+
+	/**
+	 * Starts the execution of the cascade.
+	 * 
+	 * @return OptionalLong containing the first value other than the sentinel,
+	 *         or an empty OptionalLong, if only the sentinel was encountered.
+	 */
+	public OptionalLong opt() {
+		long value = orAbsent();
+		return isAbsent(value) ? OptionalLong.empty() : OptionalLong.of(value);
+	}
+
+	/**
+	 * Starts the execution of the cascade without wrapping the result.
+	 * 
+	 * @return First value other than the sentinel, or the sentinel, if the
+	 *         cascade ended without a value.
+	 */
+	public long orAbsent() {
+		LongSupplier[] options = m_options;
+		for (int i = 0, count = m_count; i < count; i++) {
+			long value = options[i].getAsLong();
+			if (!isAbsent(value)) {
+				return value;
+			}
+		}
+		return m_absent;
+	}
+
+	/**
+	 * @param value
+	 *            Value to be checked.
+	 * @return True, if the value equals the sentinel.
+	 */
+	protected boolean isAbsent(long value) {
+		return value == m_absent;
+	}
+
+	/**
+	 * Appends an option to the end of the cascade, growing the option array if
+	 * required.
+	 * 
+	 * @param option
+	 *            Option to be appended.
+	 */
+	private void add(LongSupplier option) {
+		if (m_count == m_options.length) {
+			m_options = Arrays.copyOf(m_options, m_count << 1);
+		}
+		m_options[m_count++] = option;
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 TreffnonX (Janis Schck)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package eu.graphitez.utils.generic;
+
+import java.util.Optional;
+
+/**
+ * A {@link Preparable} evaluating its source at most once and returning the
+ * cached result afterwards. An empty result is cached as well.<br>
+ * Concurrent first calls are serialized, so the source runs exactly once.
+ * Once initialized, reads are lock-free. A resettable Memoized may be
+ * {@link #reset()}, to evaluate the source again on the next call. A plain
+ * {@link java.util.function.Supplier} is memoized by wrapping it with
+ * {@link OptionalProvider#of(java.util.function.Supplier)}.<br>
+ * Usage:<br>
+ * <code>static final Preparable&lt;T&gt; VALUE = Memoized.of(First.of(supplier/runnable/object)
+ * .or(supplier/runnable/object)...);</code>
+ * 
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class Memoized<T> implements Preparable<T> {
+	/**
+	 * Source evaluated on first access.
+	 */
+	protected final Preparable<T> m_source;
+
+	/**
+	 * True, if the cached result may be reset.
+	 */
+	protected final boolean m_resettable;
+
+	/**
+	 * Cached result, or <code>null</code>, if not evaluated yet.
+	 */
+	protected volatile Optional<T> m_result;
+
+	/**
+	 * Constructors.
+	 */
+	protected Memoized(Preparable<T> source, boolean resettable) {
+		m_source = source;
+		m_resettable = resettable;
+	}
+
+	/**
+	 * Memoizes a {@link Preparable}.
+	 * 
+	 * @param source
+	 *            Preparable evaluated on first access.
+	 * @return Memoized Preparable.
+	 */
+	public static <T> Memoized<T> of(Preparable<T> source) {
+		return new Memoized<T>(source, false);
+	}
+
+	/**
+	 * Memoizes a {@link Preparable} and allows resetting the cached result.
+	 * 
+	 * @param source
+	 *            Preparable evaluated on first access and after each reset.
+	 * @return Resettable memoized Preparable.
+	 */
+	public static <T> Memoized<T> resettable(Preparable<T> source) {
+		return new Memoized<T>(source, true);
+	}
+
+	/**
+	 * Returns the cached result, evaluating the source first, if required.
+	 * 
+	 * @return Optional wrapping the cached value, if present.
+	 */
+	@Override
+	public Optional<T> opt() {
+		Optional<T> result = m_result;
+		if (result == null) {
+			synchronized (this) {
+				result = m_result;
+				if (result == null) {
+					result = Optional.ofNullable(m_source.orNull());
+					m_result = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public T orNull() {
+		return opt().orElse(null);
+	}
+
+	/**
+	 * @return True, if the source has been evaluated and the result is cached.
+	 */
+	public boolean isEvaluated() {
+		return m_result != null;
+	}
+
+	/**
+	 * Discards the cached result, so that the source is evaluated again on the
+	 * next call. Calls racing with the reset may still return the previous
+	 * result.
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             Thrown, if this Memoized was not created as resettable.
+	 */
+	public void reset() {
+		if (!m_resettable) {
+			throw new UnsupportedOperationException("Memoized is not resettable.");
+		}
+		synchronized (this) {
+			m_result = null;
+		}
+	}
+}
@@ -28,52 +28,93 @@ import java.util.function.Supplier;
 
 /**
  * Provides an Optional based on an Object, a Supplier or just runs an Executable.
+ * <br>
+ * Each kind of option is implemented by its own final class, so that an instance
+ * only carries the state it needs and evaluating it does not branch on its kind.
  * 
  * @author Janis Schck - janis@schoeck-netz.de
  */
-public class OptionalProvider<T> implements Preparable<T> {
-	protected Runnable m_runnable;
-	protected Supplier<T> m_supplier;
-	protected T m_object;
-	
-	protected OptionalProvider(Runnable runnable) {
-		m_runnable = runnable;
-	}
-	
-	protected OptionalProvider(Supplier<T> supplier) {
-		m_supplier = supplier;
-	}
-	
-	protected OptionalProvider(T object) {
-		m_object = object;
+public abstract class OptionalProvider<T> implements Preparable<T> {
+	protected OptionalProvider() {
 	}
 	
 	public static <T> OptionalProvider<T> of(Runnable runnable) {
-		return new OptionalProvider<T>(runnable);
+		return new RunnableProvider<T>(runnable);
 	}
 	
 	public static <T> OptionalProvider<T> of(Supplier<T> supplier) {
-		return new OptionalProvider<T>(supplier);
+		return new SupplierProvider<T>(supplier);
 	}
 	
 	public static <T> OptionalProvider<T> of(T object) {
-		return new OptionalProvider<T>(object);
+		return new ObjectProvider<T>(object);
 	}
 	
-	@Override
-	public Optional<T> opt() {
-		if (m_supplier != null) {
-			T value = m_supplier.get();
-			if (value == null) {
-				return Optional.empty();
-			} else {
-				return Optional.of(value);
-			}
-		} else if (m_runnable != null) {
+	/**
+	 * Runs a {@link Runnable} and never provides a value.
+	 */
+	private static final class RunnableProvider<T> extends OptionalProvider<T> {
+		private final Runnable m_runnable;
+		
+		private RunnableProvider(Runnable runnable) {
+			m_runnable = runnable;
+		}
+		
+		@Override
+		public Optional<T> opt() {
+			m_runnable.run();
+			return Optional.empty();
+		}
+		
+		@Override
+		public T orNull() {
 			m_runnable.run();
-		} else if (m_object != null) {
-			return Optional.of(m_object);
+			return null;
+		}
+	}
+	
+	/**
+	 * Provides the value returned by a {@link Supplier}.
+	 */
+	private static final class SupplierProvider<T> extends OptionalProvider<T> {
+		private final Supplier<T> m_supplier;
+		
+		private SupplierProvider(Supplier<T> supplier) {
+			m_supplier = supplier;
+		}
+		
+		@Override
+		public Optional<T> opt() {
+			return Optional.ofNullable(m_supplier.get());
+		}
+		
+		@Override
+		public T orNull() {
+			return m_supplier.get();
+		}
+	}
+	
+	/**
+	 * Provides a constant object. The {@link Optional} is created once and
+	 * returned by every call.
+	 */
+	private static final class ObjectProvider<T> extends OptionalProvider<T> {
+		private final T m_object;
+		private final Optional<T> m_optional;
+		
+		private ObjectProvider(T object) {
+			m_object = object;
+			m_optional = Optional.ofNullable(object);
+		}
+		
+		@Override
+		public Optional<T> opt() {
+			return m_optional;
+		}
+		
+		@Override
+		public T orNull() {
+			return m_object;
 		}
-		return Optional.empty();
 	}
 }
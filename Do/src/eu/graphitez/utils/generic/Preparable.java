@@ -24,8 +24,18 @@
 package eu.graphitez.utils.generic;
 
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
+ * A value that is evaluated on demand.<br>
+ * Preparables may be composed with {@link #map(Function)},
+ * {@link #flatMap(Function)}, {@link #filter(Predicate)} and
+ * {@link #zip(Preparable, BiFunction)}. A composed Preparable evaluates all
+ * stages in a single pass through {@link #orNull()}, and only wraps the final
+ * result into an {@link Optional}, if {@link #opt()} is called.
+ * 
  * @author Janis Schck - janis@schoeck-netz.de
  */
 public interface Preparable<T> {
@@ -33,4 +43,130 @@ public interface Preparable<T> {
 	 * @return Optional wrapping the returned value, if present.
 	 */
 	public Optional<T> opt();
+	
+	/**
+	 * Evaluates this Preparable without wrapping the result into an
+	 * {@link Optional}. Implementations able to produce the raw value should
+	 * override this method to avoid the allocation.
+	 * 
+	 * @return The returned value, or <code>null</code>, if not present.
+	 */
+	public default T orNull() {
+		return opt().orElse(null);
+	}
+	
+	/**
+	 * Transforms the value of this Preparable, if present.
+	 * 
+	 * @param mapper
+	 *            Function transforming the value. May return <code>null</code>.
+	 * @return Preparable evaluating this Preparable and the mapper.
+	 */
+	public default <R> Preparable<R> map(Function<? super T, ? extends R> mapper) {
+		Preparable<T> source = this;
+		return new Preparable<R>() {
+			@Override
+			public Optional<R> opt() {
+				return Optional.ofNullable(orNull());
+			}
+			
+			@Override
+			public R orNull() {
+				T value = source.orNull();
+				return value == null ? null : mapper.apply(value);
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the value of this Preparable into another Preparable, if
+	 * present, and evaluates it.
+	 * 
+	 * @param mapper
+	 *            Function transforming the value. May return <code>null</code>.
+	 * @return Preparable evaluating this Preparable and the one returned by
+	 *         the mapper.
+	 */
+	public default <R> Preparable<R> flatMap(Function<? super T, ? extends Preparable<? extends R>> mapper) {
+		Preparable<T> source = this;
+		return new Preparable<R>() {
+			@Override
+			public Optional<R> opt() {
+				return Optional.ofNullable(orNull());
+			}
+			
+			@Override
+			public R orNull() {
+				T value = source.orNull();
+				if (value == null) {
+					return null;
+				}
+				Preparable<? extends R> next = mapper.apply(value);
+				return next == null ? null : next.orNull();
+			}
+		};
+	}
+	
+	/**
+	 * Discards the value of this Preparable, if it does not match the
+	 * predicate.
+	 * 
+	 * @param predicate
+	 *            Predicate the value must match.
+	 * @return Preparable evaluating this Preparable and the predicate.
+	 */
+	public default Preparable<T> filter(Predicate<? super T> predicate) {
+		Preparable<T> source = this;
+		return new Preparable<T>() {
+			@Override
+			public Optional<T> opt() {
+				return Optional.ofNullable(orNull());
+			}
+			
+			@Override
+			public T orNull() {
+				T value = source.orNull();
+				return value == null || !predicate.test(value) ? null : value;
+			}
+		};
+	}
+	
+	/**
+	 * Combines the values of this and another Preparable, if both are present.
+	 * The other Preparable is not evaluated, if this one has no value.
+	 * 
+	 * @param other
+	 *            Preparable evaluated second.
+	 * @param combiner
+	 *            Function combining both values. May return <code>null</code>.
+	 * @return Preparable evaluating both Preparables and the combiner.
+	 */
+	public default <U, R> Preparable<R> zip(Preparable<? extends U> other,
+			BiFunction<? super T, ? super U, ? extends R> combiner) {
+		Preparable<T> source = this;
+		return new Preparable<R>() {
+			@Override
+			public Optional<R> opt() {
+				return Optional.ofNullable(orNull());
+			}
+			
+			@Override
+			public R orNull() {
+				T value = source.orNull();
+				if (value == null) {
+					return null;
+				}
+				U otherValue = other.orNull();
+				return otherValue == null ? null : combiner.apply(value, otherValue);
+			}
+		};
+	}
+	
+	/**
+	 * @return Preparable evaluating this Preparable at most once.
+	 * @see Memoized
+	 */
+	public default Preparable<T> memoize() {
+		return Memoized.of(this);
+	}
 }
@@ -6,13 +6,23 @@ import org.junit.runners.Suite;
 import eu.graphitez.utils.generic.CompareTest;
 import eu.graphitez.utils.generic.ConvertTest;
 import eu.graphitez.utils.generic.DoTest;
+import eu.graphitez.utils.generic.FingerprintTest;
+import eu.graphitez.utils.generic.FirstAsyncTest;
+import eu.graphitez.utils.generic.FirstBatchTest;
+import eu.graphitez.utils.generic.FirstPrimitiveTest;
 import eu.graphitez.utils.generic.FirstTest;
+import eu.graphitez.utils.generic.MemoizedTest;
 
 @Suite.SuiteClasses({
 	CompareTest.class,
 	ConvertTest.class,
 	DoTest.class,
-	FirstTest.class
+	FingerprintTest.class,
+	FirstAsyncTest.class,
+	FirstBatchTest.class,
+	FirstPrimitiveTest.class,
+	FirstTest.class,
+	MemoizedTest.class
 })
 
 /**
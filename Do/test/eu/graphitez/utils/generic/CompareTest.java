@@ -3,7 +3,23 @@ package eu.graphitez.utils.generic;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -93,6 +109,340 @@ public class CompareTest {
 		assertFalse(Compare.elementsForced(d, f));
 	}
 	
+	@Test
+	public void test_asMatchingSuperclass() {
+		Object someObject = new Object();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(Compare.asMatchingSuperclass(new A(1), new A(1)));
+			assertFalse(Compare.asMatchingSuperclass(new A(1), new A(2)));
+			assertFalse(Compare.asMatchingSuperclass(new A(1), new B(1)));
+			assertTrue(Compare.asMatchingSuperclass("a", "a"));
+			assertTrue(Compare.asMatchingSuperclass(someObject, someObject));
+			assertFalse(Compare.asMatchingSuperclass(someObject, new Object()));
+			assertFalse(Compare.asMatchingSuperclass(null, "a"));
+		}
+	}
+	
+	@Test
+	public void test_collectionKinds() {
+		Integer[] array = { 1, 2, 3 };
+		List<Integer> arrayList = new ArrayList<>(Arrays.asList(array));
+		List<Integer> linkedList = new LinkedList<>(Arrays.asList(array));
+		Iterable<Integer> iterable = () -> arrayList.iterator();
+		
+		assertTrue(Compare.elements(arrayList, linkedList));
+		assertTrue(Compare.elements(linkedList, iterable));
+		assertTrue(Compare.elements(iterable, array));
+		assertTrue(Compare.elementsForced(linkedList, array));
+		assertTrue(Compare.elementsForced(array, iterable));
+		assertTrue(Compare.exactly(array, arrayList));
+		assertTrue(Compare.exactly(linkedList, array));
+		assertTrue(Compare.exactly(array, array.clone()));
+		
+		linkedList.add(4);
+		assertFalse(Compare.elements(arrayList, linkedList));
+		assertFalse(Compare.elements(linkedList, iterable));
+		assertFalse(Compare.elements(iterable, linkedList));
+		assertFalse(Compare.elementsForced(array, linkedList));
+		assertFalse(Compare.exactly(array, new Integer[] { 1, 2 }));
+		assertFalse(Compare.exactly(new Integer[] { 1, 2, 3, 4 }, iterable));
+	}
+	
+	@Test
+	public void test_primitiveArrays() {
+		int[] ints = new int[1000];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = i * 31;
+		}
+		int[] otherInts = ints.clone();
+		assertTrue(Compare.elements(ints, otherInts));
+		assertTrue(Compare.exactly(ints, 10, otherInts, 10, 990));
+		otherInts[500] = -1;
+		assertFalse(Compare.elements(ints, otherInts));
+		assertFalse(Compare.elements(ints, 0, otherInts, 0, 501));
+		assertTrue(Compare.elements(ints, 0, otherInts, 0, 500));
+		assertTrue(Compare.elements(ints, 501, otherInts, 501, 499));
+		assertFalse(Compare.elements(ints, new int[999]));
+		
+		assertTrue(Compare.elements(new long[] { 1, 2, 3 }, 1, new long[] { 2, 3 }, 0, 2));
+		assertTrue(Compare.elements(new double[] { Double.NaN }, new double[] { Double.NaN }));
+		assertFalse(Compare.elements(new double[] { 0.0 }, 0, new double[] { -0.0 }, 0, 1));
+		assertTrue(Compare.exactly(new float[] { 1f, Float.NaN }, 0, new float[] { 1f, Float.NaN }, 0, 2));
+		assertTrue(Compare.elements(new short[] { 4, 5 }, new short[] { 4, 5 }));
+		assertFalse(Compare.exactly(new char[] { 'a', 'b' }, 1, new char[] { 'a', 'b' }, 0, 1));
+		assertTrue(Compare.elements(new byte[] { 1, 2, 3 }, 2, new byte[] { 3 }, 0, 1));
+	}
+	
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void test_primitiveArraysOutOfBounds() {
+		Compare.elements(new int[4], 2, new int[4], 0, 3);
+	}
+	
+	@Test
+	public void test_parallel() {
+		int size = Compare.PARALLEL_THRESHOLD * 4;
+		A[] a = new A[size];
+		B[] b = new B[size];
+		List<Object> c = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			a[i] = new A(i);
+			b[i] = new B(i);
+			c.add(i);
+		}
+		List<Object> d = new ArrayList<>(c);
+		
+		assertTrue(Compare.elementsParallel(a, b));
+		assertTrue(Compare.elementsParallel(Arrays.asList(a), Arrays.asList(b)));
+		assertTrue(Compare.elementsForcedParallel(c, d));
+		assertTrue(Compare.elementsForcedParallel(a, a.clone()));
+		
+		b[size - 3] = new B(-1);
+		d.set(size / 2, "other");
+		assertFalse(Compare.elementsParallel(a, b));
+		assertFalse(Compare.elementsParallel(Arrays.asList(b), Arrays.asList(a)));
+		assertFalse(Compare.elementsForcedParallel(c, d));
+		assertFalse(Compare.elementsForcedParallel(a, b));
+		assertFalse(Compare.elementsParallel(a, Arrays.copyOf(b, size - 1)));
+		
+		// small and sequential inputs
+		assertTrue(Compare.elementsForcedParallel(new LinkedList<>(c), c));
+		assertTrue(Compare.elementsParallel(new Integer[] { 1, 2 }, new Integer[] { 1, 2 }));
+	}
+	
+	@Test
+	public void test_mismatch() {
+		Integer[] a = { 1, 2, 3, 4 };
+		Integer[] b = { 1, 2, 5, 4 };
+		Integer[] c = { 1, 2 };
+		
+		assertTrue(Compare.mismatch(a, a.clone()) == -1);
+		assertTrue(Compare.mismatch(a, b) == 2);
+		assertTrue(Compare.mismatch(a, c) == 2);
+		assertTrue(Compare.mismatch(Arrays.asList(a), Arrays.asList(b)) == 2);
+		assertTrue(Compare.mismatch(new LinkedList<>(Arrays.asList(c)), Arrays.asList(a)) == 2);
+		assertTrue(Compare.mismatch(new LinkedList<>(Arrays.asList(a)), Arrays.asList(a)) == -1);
+	}
+	
+	@Test
+	public void test_diff() {
+		List<String> left = Arrays.asList("a", "b", "c", "d", "e", "f", null, "g");
+		List<String> right = Arrays.asList("a", "x", "c", "d", "f", null, "g", "h", "i");
+		
+		// apply the diff to the left list and expect the right list.
+		List<String> patched = new ArrayList<>();
+		int equalRuns = 0;
+		for (Compare.Run<String> run : Compare.diff(left, right)) {
+			switch (run.getKind()) {
+			case EQUAL:
+				equalRuns++;
+				patched.addAll(left.subList((int) run.getLeftIndex(), (int) (run.getLeftIndex() + run.getLength())));
+				break;
+			case INSERT:
+				patched.addAll(run.getElements());
+				break;
+			case DELETE:
+				assertTrue(Compare.elements(run.getElements(),
+						left.subList((int) run.getLeftIndex(), (int) (run.getLeftIndex() + run.getLength()))));
+				break;
+			}
+		}
+		assertTrue(Compare.elements(patched, right));
+		assertTrue(equalRuns == 3);
+		
+		Iterator<Compare.Run<String>> runs = Compare.diff(left, left).iterator();
+		assertTrue(runs.next().getLength() == left.size());
+		assertFalse(runs.hasNext());
+		assertFalse(Compare.diff(new ArrayList<String>(), new ArrayList<String>()).iterator().hasNext());
+	}
+	
+	@Test
+	public void test_unordered() {
+		Object[] a = { "a", null, 3, "a", 2.5 };
+		Object[] b = { 2.5, "a", 3, null, "a" };
+		Object[] c = { 2.5, "a", 3, null, null };
+		
+		assertTrue(Compare.unordered(a, b));
+		assertFalse(Compare.unordered(a, c));
+		assertFalse(Compare.unordered(c, a));
+		assertFalse(Compare.unordered(a, Arrays.copyOf(b, 4)));
+		assertTrue(Compare.unordered(new LinkedList<>(Arrays.asList(a)), Arrays.asList(b)));
+		Iterable<Object> iterable = () -> Arrays.asList(b).iterator();
+		assertTrue(Compare.unordered(Arrays.asList(a), iterable));
+		assertFalse(Compare.unordered(Arrays.asList(Arrays.copyOf(a, 6)), iterable));
+		
+		assertTrue(Compare.unordered(new int[] { 1, 2, 2, -7, 0 }, new int[] { 2, 0, -7, 2, 1 }));
+		assertFalse(Compare.unordered(new int[] { 1, 2, 2 }, new int[] { 1, 1, 2 }));
+		assertFalse(Compare.unordered(new int[] { 0 }, new int[] { 1 }));
+		assertTrue(Compare.unordered(new long[] { Long.MAX_VALUE, 0 }, new long[] { 0, Long.MAX_VALUE }));
+		assertTrue(Compare.unordered(new double[] { Double.NaN, 1.5 }, new double[] { 1.5, Double.NaN }));
+		assertFalse(Compare.unordered(new double[] { 0.0 }, new double[] { -0.0 }));
+	}
+	
+	@Test
+	public void test_unorderedParallel() {
+		int size = Compare.PARALLEL_THRESHOLD * 2;
+		List<Integer> left = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			left.add(i % 1000 == 0 ? null : i % 5000);
+		}
+		List<Integer> right = new ArrayList<>(left);
+		Collections.reverse(right);
+		
+		assertTrue(Compare.unorderedParallel(left, right));
+		right.set(7, -1);
+		assertFalse(Compare.unorderedParallel(left, right));
+		assertTrue(Compare.unorderedParallel(Arrays.asList(1, 2), Arrays.asList(2, 1)));
+	}
+	
+	@Test
+	public void test_streams() {
+		assertTrue(Compare.elements(Stream.of(1, 2, 3), Arrays.asList(1, 2, 3).stream()));
+		assertFalse(Compare.elements(Stream.of(1, 2, 3), Stream.of(1, 2)));
+		assertFalse(Compare.elements(Stream.of(1, 2), Stream.iterate(1, i -> i + 1)));
+		assertFalse(Compare.elements(Stream.iterate(0, i -> i + 1), Stream.iterate(0, i -> i + 1).map(i -> i < 1000 ? i : -1)));
+		assertTrue(Compare.elementsForced(Stream.of(null, "a", 1), Stream.of(null, "a", 1)));
+		assertFalse(Compare.elementsForced(Stream.of(null, "a", 1), Stream.of(null, "a", "1")));
+		assertTrue(Compare.elements(Arrays.asList("a", "b").spliterator(), Stream.of("a", "b").spliterator()));
+		assertFalse(Compare.elementsForced(Arrays.asList("a", "b").spliterator(), Arrays.asList("a").spliterator()));
+		
+		AtomicInteger closed = new AtomicInteger();
+		Compare.elements(Stream.of(1).onClose(closed::incrementAndGet), Stream.of(2).onClose(closed::incrementAndGet));
+		assertTrue(closed.get() == 2);
+	}
+	
+	@Test
+	public void test_byteBuffers() {
+		byte[] bytes = new byte[100];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		ByteBuffer left = ByteBuffer.wrap(bytes);
+		ByteBuffer right = ByteBuffer.allocateDirect(100);
+		right.put(bytes).flip();
+		
+		assertTrue(Compare.contents(left, right));
+		assertTrue(Compare.contentMismatch(left, right) == -1);
+		right.put(37, (byte) -1);
+		assertFalse(Compare.contents(left, right));
+		assertTrue(Compare.contentMismatch(left, right) == 37);
+		assertTrue(right.position() == 0 && left.position() == 0);
+		
+		left.position(50);
+		right.position(50);
+		assertTrue(Compare.contents(left, right));
+		right.limit(60);
+		assertFalse(Compare.contents(left, right));
+		assertTrue(Compare.contentMismatch(left, right) == 10);
+	}
+	
+	@Test
+	public void test_files() throws IOException {
+		Path left = Files.createTempFile("compare", ".bin");
+		Path right = Files.createTempFile("compare", ".bin");
+		try {
+			byte[] bytes = new byte[10000];
+			new Random(7).nextBytes(bytes);
+			Files.write(left, bytes);
+			Files.write(right, bytes);
+			assertTrue(Compare.contents(left, right));
+			assertTrue(Compare.contentMismatch(left, right) == -1);
+			
+			bytes[9000]++;
+			Files.write(right, bytes);
+			assertFalse(Compare.contents(left, right));
+			assertTrue(Compare.contentMismatch(left, right) == 9000);
+			
+			Files.write(right, Arrays.copyOf(bytes, 5000));
+			assertFalse(Compare.contents(left, right));
+			assertTrue(Compare.contentMismatch(left, right) == 5000);
+			
+			Files.write(left, new byte[0]);
+			Files.write(right, new byte[0]);
+			assertTrue(Compare.contents(left, right));
+			
+			// files spanning several read chunks, and exactly one chunk.
+			byte[] large = new byte[(1 << 17) * 3 + 5];
+			new Random(11).nextBytes(large);
+			Files.write(left, large);
+			Files.write(right, large);
+			assertTrue(Compare.contents(left, right));
+			large[(1 << 17) + 3]++;
+			Files.write(right, large);
+			assertTrue(Compare.contentMismatch(left, right) == (1 << 17) + 3);
+			Files.write(left, Arrays.copyOf(large, 1 << 17));
+			Files.write(right, Arrays.copyOf(large, 1 << 17));
+			assertTrue(Compare.contentMismatch(left, right) == -1);
+			Files.write(right, large);
+			assertTrue(Compare.contentMismatch(left, right) == 1 << 17);
+		} finally {
+			Files.delete(left);
+			Files.delete(right);
+		}
+	}
+	
+	@Test
+	public void test_deep() {
+		Map<String, Object> left = new HashMap<>();
+		left.put("list", Arrays.asList(1, new int[] { 2, 3 }, Arrays.asList("a", null), new Object[] { new A(4) }));
+		left.put("set", new HashSet<>(Arrays.asList("x", "y")));
+		left.put("none", null);
+		Map<String, Object> right = new HashMap<>();
+		right.put("list", new Object[] { 1, new int[] { 2, 3 }, new LinkedList<>(Arrays.asList("a", null)),
+				Arrays.asList(new A(4)) });
+		right.put("set", new HashSet<>(Arrays.asList("y", "x")));
+		right.put("none", null);
+		
+		assertTrue(Compare.deep(left, right));
+		assertTrue(Compare.deep(null, null));
+		assertFalse(Compare.deep(left, null));
+		
+		right.put("none", "some");
+		assertFalse(Compare.deep(left, right));
+		right.remove("none");
+		right.put("other", null);
+		assertFalse(Compare.deep(left, right));
+		right.remove("other");
+		right.put("none", null);
+		
+		((Object[]) right.get("list"))[1] = new long[] { 2, 3 };
+		assertFalse(Compare.deep(left, right));
+		((Object[]) right.get("list"))[1] = new int[] { 2, 4 };
+		assertFalse(Compare.deep(left, right));
+		assertFalse(Compare.deep(Arrays.asList(1, 2), Arrays.asList(1, 2, 3)));
+		assertFalse(Compare.deep(Arrays.asList(new A(1)), Arrays.asList(new B(1))));
+	}
+	
+	@Test
+	public void test_deepNestedAndCyclic() {
+		List<Object> left = new ArrayList<>();
+		List<Object> right = new ArrayList<>();
+		List<Object> leftInner = left;
+		List<Object> rightInner = right;
+		for (int i = 0; i < 100000; i++) {
+			List<Object> nextLeft = new ArrayList<>();
+			List<Object> nextRight = new ArrayList<>();
+			leftInner.add(nextLeft);
+			rightInner.add(nextRight);
+			leftInner = nextLeft;
+			rightInner = nextRight;
+		}
+		leftInner.add("end");
+		rightInner.add("end");
+		assertTrue(Compare.deep(left, right));
+		rightInner.set(0, "other end");
+		assertFalse(Compare.deep(left, right));
+		
+		List<Object> leftCycle = new ArrayList<>();
+		leftCycle.add(1);
+		leftCycle.add(leftCycle);
+		List<Object> rightCycle = new ArrayList<>();
+		rightCycle.add(1);
+		rightCycle.add(rightCycle);
+		assertTrue(Compare.deep(leftCycle, rightCycle));
+		rightCycle.set(0, 2);
+		assertFalse(Compare.deep(leftCycle, rightCycle));
+	}
+	
 	public static class A implements Comparable<A> {
 		private Integer m_val = 0;
 		
@@ -117,4 +467,13 @@ public class CompareTest {
 			super(val);
 		}
 	}
+	
+	@Test
+	public void test_deepSelfSimilar() {
+		assertTrue(Compare.deep(Paths.get("a"), Paths.get("a")));
+		assertFalse(Compare.deep(Paths.get("a"), Paths.get("b")));
+		assertTrue(Compare.deep(Paths.get("a", "b"), Paths.get("a", "b")));
+		assertFalse(Compare.deep(Paths.get("a", "b"), Paths.get("a", "c")));
+		assertTrue(Compare.deep(Arrays.asList(Paths.get("x", "y")), new Object[] { Paths.get("x", "y") }));
+	}
 }
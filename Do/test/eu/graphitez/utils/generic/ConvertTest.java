@@ -1,9 +1,20 @@
 package eu.graphitez.utils.generic;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 
 import org.junit.Test;
 
@@ -58,4 +69,273 @@ public class ConvertTest {
 		assertTrue(Compare.elements(result_1, intArrayResult));
 		assertTrue(Compare.elements(intArrayResult, result_1));
 	}
+	
+	@Test
+	public void test_convertCollections() {
+		List<Integer> arrayList = new ArrayList<>(Arrays.asList(0, 1, null, 3));
+		List<Integer> linkedList = new LinkedList<>(arrayList);
+		String[] mapped = { "0", "1", "null", "3" };
+		String[] inner = { "0", "1", "3" };
+		
+		assertTrue(Compare.elements(Convert.map(arrayList, String::valueOf), mapped));
+		assertTrue(Compare.elements(Convert.map(linkedList, String::valueOf), mapped));
+		assertTrue(Compare.elements(Convert.inner(arrayList, String::valueOf), inner));
+		assertTrue(Compare.elements(Convert.inner(linkedList, i -> i == 1 ? null : String.valueOf(i)),
+				new String[] { "0", "3" }));
+		assertTrue(Convert.map(new ArrayList<Integer>(), String::valueOf).isEmpty());
+	}
+	
+	@Test
+	public void test_convertParallel() {
+		int size = Convert.PARALLEL_THRESHOLD * 3 + 7;
+		Integer[] array = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = i % 10 == 0 ? null : i;
+		}
+		List<String> expected = Convert.map(array, String::valueOf);
+		List<String> expectedInner = Convert.inner(array, i -> i % 3 == 0 ? null : String.valueOf(i));
+		
+		assertTrue(Compare.elements(Convert.mapParallel(array, String::valueOf), expected));
+		assertTrue(Compare.elements(Convert.mapParallel(new LinkedList<>(Arrays.asList(array)), String::valueOf),
+				expected));
+		assertTrue(Compare.elements(Convert.innerParallel(Arrays.asList(array), i -> i % 3 == 0 ? null : String.valueOf(i)),
+				expectedInner));
+		
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			assertTrue(Compare.elements(Convert.mapParallel(array, String::valueOf, executor, 16), expected));
+			assertTrue(Compare.elements(
+					Convert.innerParallel(new Integer[] { 1, null, 3 }, String::valueOf, executor, 1),
+					new String[] { "1", "3" }));
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void test_convertParallelFailure() {
+		Integer[] array = new Integer[Convert.PARALLEL_THRESHOLD * 2];
+		Arrays.fill(array, 1);
+		array[array.length - 1] = 2;
+		Convert.mapParallel(array, i -> {
+			if (i == 2) {
+				throw new IllegalStateException();
+			}
+			return i;
+		});
+	}
+	
+	@Test
+	public void test_convertBlocking() {
+		Integer[] array = new Integer[200];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = i;
+		}
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		List<String> result = Convert.mapBlocking(Arrays.asList(array), i -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(i % 3);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+			}
+			return String.valueOf(i);
+		}, 8);
+		assertTrue(Compare.elements(result, Convert.map(array, String::valueOf)));
+		assertTrue(maxRunning.get() <= 8);
+		assertTrue(Compare.elements(Convert.mapBlocking(new Integer[0], String::valueOf, 1), new String[0]));
+	}
+	
+	@Test
+	public void test_convertBlockingFailure() {
+		Integer[] array = new Integer[100];
+		Arrays.fill(array, 1);
+		array[10] = 2;
+		AtomicInteger started = new AtomicInteger();
+		try {
+			Convert.mapBlocking(array, i -> {
+				started.incrementAndGet();
+				if (i == 2) {
+					throw new IllegalStateException();
+				}
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return i;
+			}, 2);
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(started.get() < array.length);
+		}
+	}
+	
+	@Test
+	public void test_convertView() {
+		List<Integer> source = new ArrayList<>(Arrays.asList(1, 2, 3));
+		AtomicInteger calls = new AtomicInteger();
+		List<String> view = Convert.view(source, i -> {
+			calls.incrementAndGet();
+			return String.valueOf(i);
+		});
+		assertTrue(calls.get() == 0);
+		assertTrue(view instanceof RandomAccess);
+		assertTrue(view.get(1).equals("2"));
+		assertTrue(view.get(1).equals("2"));
+		assertTrue(calls.get() == 2);
+		source.add(4);
+		assertTrue(Compare.elements(view, new String[] { "1", "2", "3", "4" }));
+		assertTrue(Compare.elements(Convert.view(new Integer[] { 5, 6 }, String::valueOf), new String[] { "5", "6" }));
+		try {
+			view.add("5");
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void test_convertViewCached() {
+		AtomicInteger calls = new AtomicInteger();
+		List<String> view = Convert.viewCached(new Integer[] { 1, null, 3 }, i -> {
+			calls.incrementAndGet();
+			return i == null ? null : String.valueOf(i);
+		});
+		assertTrue(calls.get() == 0);
+		assertTrue(view.get(2).equals("3"));
+		assertTrue(view.get(1) == null);
+		assertTrue(view.get(2).equals("3"));
+		assertTrue(view.get(1) == null);
+		assertTrue(calls.get() == 2);
+		assertTrue(view.size() == 3);
+		assertTrue(view.subList(0, 1).get(0).equals("1"));
+		assertTrue(calls.get() == 3);
+	}
+	
+	@Test
+	public void test_convertPrimitive() {
+		List<String> list = Arrays.asList("a", "bb", null, "dddd");
+		String[] array = list.toArray(new String[0]);
+		ToIntFunction<String> length = s -> s == null ? -1 : s.length();
+		assertArrayEquals(new int[] { 1, 2, -1, 4 }, Convert.mapInt(list, length));
+		assertArrayEquals(new int[] { 1, 2, -1, 4 }, Convert.mapInt(array, length));
+		assertArrayEquals(new int[] { 1, 2, 4 }, Convert.innerInt(list, String::length));
+		assertArrayEquals(new long[] { 1, 2, 4 }, Convert.innerLong(array, String::length));
+		assertArrayEquals(new long[] { 1, 2, -1, 4 }, Convert.mapLong(new LinkedList<>(list), length::applyAsInt));
+		assertArrayEquals(new double[] { 1, 2, -1, 4 }, Convert.mapDouble(array, length::applyAsInt), 0);
+		assertArrayEquals(new double[] { 1, 2, 4 }, Convert.innerDouble(list, String::length), 0);
+		assertArrayEquals(new int[0], Convert.innerInt(new String[] { null }, String::length));
+	}
+	
+	@Test
+	public void test_convertPrimitiveParallel() {
+		Integer[] array = new Integer[Convert.PARALLEL_THRESHOLD * 2 + 1];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = i;
+		}
+		List<Integer> list = new LinkedList<>(Arrays.asList(array));
+		int[] ints = Convert.mapIntParallel(list, i -> i * 2);
+		long[] longs = Convert.mapLongParallel(array, i -> i * 3L);
+		double[] doubles = Convert.mapDoubleParallel(Arrays.asList(array), i -> i / 2.0);
+		assertTrue(ints.length == array.length && longs.length == array.length && doubles.length == array.length);
+		for (int i = 0; i < array.length; i++) {
+			assertTrue(ints[i] == i * 2 && longs[i] == i * 3L && doubles[i] == i / 2.0);
+		}
+		assertArrayEquals(new int[] { 2, 4 }, Convert.mapIntParallel(new Integer[] { 1, 2 }, i -> i * 2));
+	}
+	
+	@Test
+	public void test_convertViewSequential() {
+		List<Integer> source = new LinkedList<>(Arrays.asList(1, 2, 3));
+		AtomicInteger calls = new AtomicInteger();
+		List<String> view = Convert.view(source, String::valueOf);
+		List<String> cached = Convert.viewCached(source, i -> {
+			calls.incrementAndGet();
+			return i == 2 ? null : String.valueOf(i);
+		});
+		assertFalse(view instanceof RandomAccess);
+		assertFalse(cached instanceof RandomAccess);
+		assertTrue(Convert.viewCached(new Integer[] { 1 }, String::valueOf) instanceof RandomAccess);
+		assertTrue(Compare.elements(view, new String[] { "1", "2", "3" }));
+		
+		ListIterator<String> iterator = cached.listIterator(3);
+		assertTrue(iterator.previous().equals("3"));
+		assertTrue(iterator.previous() == null);
+		assertTrue(iterator.nextIndex() == 1);
+		assertTrue(cached.get(1) == null && cached.get(2).equals("3"));
+		assertTrue(calls.get() == 2);
+		assertTrue(cached.indexOf(null) == 1);
+		assertTrue(calls.get() == 3);
+		
+		// the size of cached views is fixed at creation.
+		source.add(4);
+		assertTrue(cached.size() == 3);
+		int count = 0;
+		for (String s : cached) {
+			count += s == null ? 0 : 1;
+		}
+		assertTrue(count == 2);
+		assertTrue(view.size() == 4);
+		try {
+			view.iterator().remove();
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void test_convertParallelMutable() {
+		Integer[] large = new Integer[Convert.PARALLEL_THRESHOLD];
+		Arrays.fill(large, 1);
+		List<String> small = Convert.mapParallel(new Integer[] { 1 }, String::valueOf);
+		List<String> parallel = Convert.mapParallel(Arrays.asList(large), String::valueOf);
+		List<String> blocking = Convert.mapBlocking(new Integer[] { 1 }, String::valueOf, 1);
+		assertTrue(small.add("2") && parallel.add("2") && blocking.add("2"));
+		assertTrue(small.size() == 2 && parallel.size() == large.length + 1 && blocking.size() == 2);
+	}
+	
+	@Test
+	public void test_convertPrimitiveInnerParallel() {
+		Integer[] array = new Integer[Convert.PARALLEL_THRESHOLD * 2 + 1];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = i % 4 == 0 ? null : i;
+		}
+		int[] expected = Convert.innerInt(array, i -> i);
+		assertArrayEquals(expected, Convert.innerIntParallel(array, i -> i));
+		assertArrayEquals(expected, Convert.innerIntParallel(new LinkedList<>(Arrays.asList(array)), i -> i));
+		assertArrayEquals(Convert.innerLong(array, i -> i * 3L), Convert.innerLongParallel(array, i -> i * 3L));
+		assertArrayEquals(Convert.innerDouble(array, i -> i / 2.0),
+				Convert.innerDoubleParallel(Arrays.asList(array), i -> i / 2.0), 0);
+		assertArrayEquals(new int[] { 1 }, Convert.innerIntParallel(new Integer[] { null, 1 }, i -> i));
+	}
+	
+	@Test
+	public void test_convertViewCachedConcurrent() throws InterruptedException {
+		Integer[] array = new Integer[1000];
+		Arrays.fill(array, 1);
+		AtomicInteger calls = new AtomicInteger();
+		List<Integer> view = Convert.viewCached(array, i -> {
+			calls.incrementAndGet();
+			Thread.yield();
+			return i;
+		});
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < view.size(); i++) {
+					view.get(i);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(calls.get() == array.length);
+	}
 }
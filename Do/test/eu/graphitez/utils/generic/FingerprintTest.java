@@ -0,0 +1,86 @@
+package eu.graphitez.utils.generic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.graphitez.utils.generic.Compare;
+import eu.graphitez.utils.generic.Fingerprint;
+
+/**
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FingerprintTest {
+	@Test
+	public void test_fingerprint() {
+		Fingerprint a = Fingerprint.of(Arrays.asList("a", "b", null));
+		Fingerprint b = Fingerprint.of(new Object[] { "a", "b", null });
+		Fingerprint c = Fingerprint.of(Arrays.asList("b", "a", null));
+		
+		assertTrue(a.matches(b));
+		assertTrue(a.equals(b) && a.hashCode() == b.hashCode());
+		assertFalse(a.matches(c));
+		assertFalse(a.matches(Fingerprint.of(Arrays.asList("a", "b"))));
+		assertTrue(a.getSize() == 3);
+	}
+	
+	@Test
+	public void test_fingerprintIncremental() {
+		Fingerprint fingerprint = Fingerprint.empty().append(1).append(2);
+		assertTrue(fingerprint.matches(Fingerprint.of(Arrays.asList(1, 2))));
+		
+		fingerprint.append(3).replace(0, 1, 7);
+		assertTrue(fingerprint.matches(Fingerprint.of(Arrays.asList(7, 2, 3))));
+		fingerprint.replace(2, 3, null);
+		assertTrue(fingerprint.matches(Fingerprint.of(Arrays.asList(7, 2, null))));
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void test_fingerprintReplaceOutOfBounds() {
+		Fingerprint.empty().append(1).replace(1, 1, 2);
+	}
+	
+	@Test
+	public void test_fingerprintCached() {
+		List<Integer> reference = new ArrayList<>();
+		List<Integer> incoming = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			reference.add(i);
+			incoming.add(i);
+		}
+		assertTrue(Fingerprint.cached(reference) == Fingerprint.cached(reference));
+		assertTrue(Compare.elementsCached(reference, incoming));
+		
+		List<Integer> other = new ArrayList<>(incoming);
+		other.set(500, -1);
+		assertFalse(Compare.elementsCached(reference, other));
+		
+		// modifications require the cached fingerprint to be updated or invalidated.
+		Fingerprint.cached(incoming).replace(500, incoming.set(500, -1), -1);
+		assertFalse(Compare.elementsCached(reference, incoming));
+		Fingerprint.invalidate(other);
+		other.set(500, 500);
+		assertTrue(Compare.elementsCached(reference, other));
+	}
+	
+	@Test
+	public void test_cachedEqualsSemantics() {
+		// equal by compareTo, but neither equal by equals, nor by hash code.
+		List<BigDecimal> left = Arrays.asList(new BigDecimal("1.0"), new BigDecimal("2"));
+		List<BigDecimal> right = Arrays.asList(new BigDecimal("1.00"), new BigDecimal("2"));
+		assertTrue(Compare.elements(left, right));
+		assertFalse(left.equals(right));
+		assertFalse(Compare.elementsCached(left, right));
+		
+		// equal by equals and hash code, but different instances.
+		List<BigDecimal> copy = Arrays.asList(new BigDecimal("1.0"), new BigDecimal("2"));
+		assertTrue(Compare.elementsCached(left, copy));
+		assertTrue(Compare.elementsCached(Arrays.asList(null, "a"), Arrays.asList(null, "a")));
+	}
+}
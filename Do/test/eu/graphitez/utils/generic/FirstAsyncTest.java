@@ -0,0 +1,143 @@
+package eu.graphitez.utils.generic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+
+import eu.graphitez.utils.generic.FirstAsync;
+
+/**
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FirstAsyncTest {
+	@Test
+	public void test_firstAsyncOfEmpty() {
+		Optional<Integer> result = FirstAsync.of(() -> CompletableFuture.completedFuture((Integer) null))
+											 .or((Integer) null)
+											 .or(() -> null)
+											 .opt()
+											 .join();
+		assertFalse(result.isPresent());
+	}
+	
+	@Test
+	public void test_firstAsyncPending() {
+		CompletableFuture<Integer> pending = new CompletableFuture<>();
+		AtomicInteger started = new AtomicInteger();
+		CompletableFuture<Optional<Integer>> result = FirstAsync.of(() -> pending)
+																.or(() -> {
+																	started.incrementAndGet();
+																	return CompletableFuture.completedFuture(2);
+																})
+																.or(3)
+																.opt();
+		assertFalse(result.isDone());
+		assertTrue(started.get() == 0);
+		
+		pending.complete(null);
+		assertTrue(result.join().get() == 2);
+		assertTrue(started.get() == 1);
+	}
+	
+	@Test
+	public void test_firstAsyncDefault() {
+		Integer result = FirstAsync.of(() -> CompletableFuture.supplyAsync(() -> (Integer) null))
+								   .or((Integer) null)
+								   .orDef(4)
+								   .join();
+		assertTrue(result == 4);
+	}
+	
+	@Test
+	public void test_firstAsyncFailure() throws InterruptedException {
+		CompletableFuture<Integer> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException());
+		try {
+			FirstAsync.of(() -> failed).or(1).opt().get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		try {
+			FirstAsync.of((Integer) null).orDef((Integer) null).get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof NoSuchElementException);
+		}
+	}
+	
+	@Test
+	public void test_firstAsyncMinimalStage() throws Exception {
+		CompletableFuture<Optional<Integer>> result = FirstAsync.of(() -> minimal(null)).or(2).opt();
+		assertTrue(result.get(2, TimeUnit.SECONDS).get() == 2);
+		
+		CompletableFuture<Integer> pending = new CompletableFuture<>();
+		result = FirstAsync.of(() -> pending).or(() -> minimal(null)).or(3).opt();
+		pending.complete(null);
+		assertTrue(result.get(2, TimeUnit.SECONDS).get() == 3);
+	}
+	
+	@Test
+	public void test_firstAsyncFailureInCallback() throws InterruptedException, TimeoutException {
+		CompletableFuture<Integer> pending = new CompletableFuture<>();
+		CompletableFuture<Optional<Integer>> result = FirstAsync.of(() -> pending)
+																.or(() -> new CompletableFuture<Integer>() {
+																	@Override
+																	public CompletableFuture<Integer> whenComplete(
+																			BiConsumer<? super Integer, ? super Throwable> action) {
+																		throw new IllegalStateException();
+																	}
+																})
+																.opt();
+		pending.complete(null);
+		try {
+			result.get(2, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+	
+	@Test
+	public void test_firstAsyncCancelled() {
+		CompletableFuture<Integer> pending = new CompletableFuture<>();
+		AtomicInteger started = new AtomicInteger();
+		CompletableFuture<Optional<Integer>> result = FirstAsync.of(() -> pending)
+																.or(() -> {
+																	started.incrementAndGet();
+																	return CompletableFuture.completedFuture(2);
+																})
+																.opt();
+		assertTrue(result.cancel(true));
+		pending.complete(null);
+		assertTrue(started.get() == 0);
+	}
+	
+	/**
+	 * Creates a minimal completion stage, which does not support the
+	 * {@link CompletableFuture} methods. Minimal stages exist from Java 9 on.
+	 */
+	@SuppressWarnings("unchecked")
+	private static CompletionStage<Integer> minimal(Integer value) {
+		try {
+			return (CompletionStage<Integer>) CompletableFuture.class.getMethod("completedStage", Object.class)
+																	 .invoke(null, value);
+		} catch (NoSuchMethodException e) {
+			return CompletableFuture.completedFuture(value);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
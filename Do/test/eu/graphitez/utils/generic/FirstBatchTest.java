@@ -0,0 +1,124 @@
+package eu.graphitez.utils.generic;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import eu.graphitez.utils.generic.FirstBatch;
+
+/**
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FirstBatchTest {
+	@Test
+	public void test_firstBatchTiers() {
+		Map<Integer, String> cache = new HashMap<>();
+		cache.put(1, "cached 1");
+		cache.put(5, "cached 5");
+		List<Set<Integer>> requests = new ArrayList<>();
+		
+		Map<Integer, String> result = FirstBatch.of(cache)
+												.or((Set<Integer> keys) -> {
+													requests.add(new HashSet<>(keys));
+													Map<Integer, String> found = new HashMap<>();
+													for (Integer key : keys) {
+														found.put(key, key % 2 == 0 ? "stored " + key : null);
+													}
+													found.put(99, "not requested");
+													return found;
+												})
+												.orEach(key -> "computed " + key)
+												.resolve(Arrays.asList(1, 2, 3, 4, 5));
+		
+		assertTrue(result.size() == 5);
+		assertTrue(result.get(1).equals("cached 1"));
+		assertTrue(result.get(2).equals("stored 2"));
+		assertTrue(result.get(3).equals("computed 3"));
+		assertTrue(result.get(4).equals("stored 4"));
+		assertTrue(result.get(5).equals("cached 5"));
+		assertTrue(requests.size() == 1);
+		assertTrue(requests.get(0).size() == 3);
+	}
+	
+	@Test
+	public void test_firstBatchSkipsResolved() {
+		List<Set<Integer>> requests = new ArrayList<>();
+		Map<Integer, String> result = FirstBatch.of((Set<Integer> keys) -> {
+													Map<Integer, String> found = new HashMap<>();
+													for (Integer key : keys) {
+														found.put(key, "first " + key);
+													}
+													return found;
+												})
+												.or((Set<Integer> keys) -> {
+													requests.add(keys);
+													return null;
+												})
+												.resolve(Arrays.asList(1, 2));
+		assertTrue(result.size() == 2);
+		assertTrue(requests.isEmpty());
+	}
+	
+	@Test
+	public void test_firstBatchUnresolved() {
+		Map<Integer, String> result = FirstBatch.of(new HashMap<Integer, String>())
+												.or((Set<Integer> keys) -> null)
+												.resolve(Arrays.asList(1, 2));
+		assertTrue(result.isEmpty());
+	}
+	
+	@Test
+	public void test_firstBatchKeySnapshots() {
+		List<Set<Integer>> requests = new ArrayList<>();
+		// lazy map backed by the requested keys, resolving even keys only.
+		Map<Integer, String> result = FirstBatch.of((Set<Integer> keys) -> {
+													requests.add(keys);
+													return new AbstractMap<Integer, String>() {
+														@Override
+														public Set<Map.Entry<Integer, String>> entrySet() {
+															return new AbstractSet<Map.Entry<Integer, String>>() {
+																@Override
+																public Iterator<Map.Entry<Integer, String>> iterator() {
+																	Iterator<Integer> iterator = keys.iterator();
+																	return new Iterator<Map.Entry<Integer, String>>() {
+																		@Override
+																		public boolean hasNext() {
+																			return iterator.hasNext();
+																		}
+																		
+																		@Override
+																		public Map.Entry<Integer, String> next() {
+																			Integer key = iterator.next();
+																			return new SimpleEntry<>(key,
+																					key % 2 == 0 ? "even " + key : null);
+																		}
+																	};
+																}
+																
+																@Override
+																public int size() {
+																	return keys.size();
+																}
+															};
+														}
+													};
+												})
+												.orEach(key -> "each " + key)
+												.resolve(Arrays.asList(1, 2, 3, 4));
+		assertTrue(result.size() == 4);
+		assertTrue(result.get(2).equals("even 2") && result.get(3).equals("each 3"));
+		assertTrue(requests.get(0).equals(new HashSet<>(Arrays.asList(1, 2, 3, 4))));
+	}
+}
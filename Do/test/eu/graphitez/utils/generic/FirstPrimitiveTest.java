@@ -0,0 +1,71 @@
+package eu.graphitez.utils.generic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.OptionalInt;
+
+import org.junit.Test;
+
+import eu.graphitez.utils.generic.FirstDouble;
+import eu.graphitez.utils.generic.FirstInt;
+import eu.graphitez.utils.generic.FirstLong;
+
+/**
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class FirstPrimitiveTest {
+	@Test
+	public void test_firstInt() {
+		OptionalInt result = FirstInt.of(() -> Integer.MIN_VALUE)
+									 .or(Integer.MIN_VALUE)
+									 .opt();
+		assertFalse(result.isPresent());
+		
+		int value = FirstInt.of(Integer.MIN_VALUE)
+							.or(() -> 2)
+							.or(3)
+							.orDef(4);
+		assertTrue(value == 2);
+		
+		value = FirstInt.of(-1)
+						.absent(-1)
+						.or(() -> -1)
+						.orDef(() -> 5);
+		assertTrue(value == 5);
+		
+		result = FirstInt.of(0).absent(0).orElse(6);
+		assertTrue(result.getAsInt() == 6);
+	}
+	
+	@Test
+	public void test_firstLong() {
+		long value = FirstLong.of(() -> Long.MIN_VALUE)
+							  .or(Long.MIN_VALUE)
+							  .orAbsent();
+		assertTrue(value == Long.MIN_VALUE);
+		
+		value = FirstLong.of(0L)
+						 .absent(0L)
+						 .or(() -> 7L)
+						 .orDef(8L);
+		assertTrue(value == 7L);
+	}
+	
+	@Test
+	public void test_firstDouble() {
+		double value = FirstDouble.of(() -> Double.NaN)
+								  .or(0.0 / 0.0)
+								  .or(() -> 1.5)
+								  .orDef(2.5);
+		assertTrue(value == 1.5);
+		
+		assertFalse(FirstDouble.of(Double.NaN).opt().isPresent());
+		
+		value = FirstDouble.of(-1.0)
+						   .absent(-1.0)
+						   .orElse(Double.NaN)
+						   .getAsDouble();
+		assertTrue(Double.isNaN(value));
+	}
+}
@@ -1,9 +1,16 @@
 package eu.graphitez.utils.generic;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -87,4 +94,195 @@ public class FirstTest {
 		Integer result = First.of(someValue).or(otherValue).orElse(2).get();
 		assertTrue(result == 1);
 	}
+	
+	@Test
+	public void test_firstOrNull() {
+		Integer result = First.of((Integer) null)
+							  .or(() -> null)
+							  .orNull();
+		assertNull(result);
+		
+		result = First.of((Integer) null)
+					  .or(() -> 2)
+					  .orNull();
+		assertTrue(result == 2);
+	}
+	
+	@Test
+	public void test_firstOfManyOptions() {
+		First<Integer> first = First.of((Integer) null);
+		for (int i = 0; i < 20; i++) {
+			first.or((Integer) null);
+		}
+		Integer result = first.or(() -> Integer.valueOf(21)).orDef(22);
+		assertTrue(result == 21);
+	}
+	
+	@Test
+	public void test_firstOfDefaultNotAppended() {
+		First<Integer> first = First.of((Integer) null);
+		assertTrue(first.orDef(1) == 1);
+		assertTrue(first.orDef(() -> 2) == 2);
+		assertFalse(first.opt().isPresent());
+	}
+	
+	@Test(expected = NoSuchElementException.class)
+	public void test_firstOfNullDefault() {
+		First.of((Integer) null).orDef((Integer) null);
+	}
+	
+	@Test
+	public void test_firstCompiled() {
+		AtomicInteger calls = new AtomicInteger();
+		First<Integer> first = First.of((Integer) null)
+									.or(() -> calls.incrementAndGet() > 1 ? 1 : null);
+		Preparable<Integer> compiled = first.compile();
+		first.or(2);
+		
+		assertFalse(compiled.opt().isPresent());
+		assertTrue(compiled.orNull() == 1);
+		assertTrue(first.orNull() == 1);
+		assertTrue(calls.get() == 3);
+	}
+	
+	@Test
+	public void test_firstCompiledConcurrent() throws InterruptedException {
+		Preparable<String> compiled = First.of((String) null)
+										   .or(() -> null)
+										   .or("value")
+										   .compile();
+		AtomicInteger matches = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 1000; j++) {
+					if ("value".equals(compiled.orNull())) {
+						matches.incrementAndGet();
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(matches.get() == 4000);
+	}
+	
+	@Test
+	public void test_firstSpeculative() throws InterruptedException {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+			Optional<String> result = First.of(() -> (String) null)
+										   .or(() -> {
+											   // the winner completes only after the losing task started.
+											   try {
+												   return started.await(5, TimeUnit.SECONDS) ? "slow" : null;
+											   } catch (InterruptedException e) {
+												   return null;
+											   }
+										   })
+										   .or(() -> "fast")
+										   .or(() -> {
+											   started.countDown();
+											   try {
+												   Thread.sleep(10000);
+											   } catch (InterruptedException e) {
+												   interrupted.countDown();
+											   }
+											   return "stuck";
+										   })
+										   .speculate(executor);
+			assertTrue(result.isPresent());
+			assertTrue(result.get().equals("slow"));
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+			
+			result = First.of(() -> (String) null)
+						  .or(() -> null)
+						  .or("sequential")
+						  .speculate(executor, 2);
+			assertTrue(result.get().equals("sequential"));
+			
+			result = First.of(() -> (String) null).speculate(executor);
+			assertFalse(result.isPresent());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static <T> T sleep(long millis, T value) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			return null;
+		}
+		return value;
+	}
+	
+	@Test
+	public void test_firstWithin() {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			Optional<String> result = First.of(() -> sleep(10000, "stuck"))
+										   .or(() -> (String) null)
+										   .or(() -> "fallback")
+										   .within(executor, 50, 0, TimeUnit.MILLISECONDS);
+			assertTrue(result.get().equals("fallback"));
+			
+			result = First.of(() -> sleep(10000, "stuck"))
+						  .or(() -> sleep(10000, "stuck"))
+						  .or("late")
+						  .within(executor, 0, 100, TimeUnit.MILLISECONDS);
+			assertFalse(result.isPresent());
+			
+			result = First.of(() -> (String) null)
+						  .or("inline")
+						  .within(null, 0, 0, TimeUnit.MILLISECONDS);
+			assertTrue(result.get().equals("inline"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void test_optionalProviderKinds() {
+		AtomicInteger runs = new AtomicInteger();
+		OptionalProvider<Integer> runnable = OptionalProvider.of(() -> Do.asVoid(runs.incrementAndGet()));
+		assertFalse(runnable.opt().isPresent());
+		assertNull(runnable.orNull());
+		assertTrue(runs.get() == 2);
+		
+		OptionalProvider<Integer> supplier = OptionalProvider.of(() -> runs.get());
+		assertTrue(supplier.opt().get() == 2);
+		
+		OptionalProvider<Integer> object = OptionalProvider.of(3);
+		assertTrue(object.opt() == object.opt());
+		assertTrue(object.orNull() == 3);
+		assertFalse(OptionalProvider.of((Integer) null).opt().isPresent());
+	}
+	
+	@Test
+	public void test_preparableCombinators() {
+		Preparable<String> name = First.of((String) null).or(() -> "value");
+		
+		assertTrue(name.map(String::length).orNull() == 5);
+		assertTrue(name.filter(s -> s.startsWith("v")).opt().get().equals("value"));
+		assertFalse(name.filter(s -> s.isEmpty()).opt().isPresent());
+		assertTrue(name.flatMap(s -> First.of((Integer) null).or(s.length() * 2)).orNull() == 10);
+		assertNull(name.flatMap(s -> null).orNull());
+		assertTrue(name.zip(OptionalProvider.of(2), (s, i) -> s + i).orNull().equals("value2"));
+		
+		AtomicInteger calls = new AtomicInteger();
+		Preparable<Integer> empty = First.of((Integer) null);
+		assertNull(empty.map(i -> calls.incrementAndGet())
+						.zip(OptionalProvider.of(() -> calls.incrementAndGet()), (a, b) -> a + b)
+						.orNull());
+		assertTrue(calls.get() == 0);
+		
+		Preparable<Integer> memoized = OptionalProvider.of(() -> calls.incrementAndGet()).memoize();
+		assertTrue(memoized.orNull() == 1);
+		assertTrue(memoized.orNull() == 1);
+	}
 }
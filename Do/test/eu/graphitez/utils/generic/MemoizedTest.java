@@ -0,0 +1,94 @@
+package eu.graphitez.utils.generic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import eu.graphitez.utils.generic.First;
+import eu.graphitez.utils.generic.Memoized;
+import eu.graphitez.utils.generic.OptionalProvider;
+
+/**
+ * @author Janis Schck - janis@schoeck-netz.de
+ */
+public class MemoizedTest {
+	@Test
+	public void test_memoizedOnce() {
+		AtomicInteger calls = new AtomicInteger();
+		Memoized<Integer> memoized = Memoized.of(First.of(() -> (Integer) null)
+													  .or(() -> calls.incrementAndGet()));
+		assertFalse(memoized.isEvaluated());
+		assertTrue(memoized.orNull() == 1);
+		assertTrue(memoized.opt().get() == 1);
+		assertTrue(memoized.isEvaluated());
+		assertTrue(calls.get() == 1);
+	}
+	
+	@Test
+	public void test_memoizedEmpty() {
+		AtomicInteger calls = new AtomicInteger();
+		Memoized<Integer> memoized = Memoized.of(OptionalProvider.of(() -> {
+			calls.incrementAndGet();
+			return (Integer) null;
+		}));
+		assertNull(memoized.orNull());
+		assertFalse(memoized.opt().isPresent());
+		assertTrue(calls.get() == 1);
+	}
+	
+	@Test
+	public void test_memoizedConcurrent() throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		Memoized<Integer> memoized = Memoized.of(OptionalProvider.of(() -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return calls.incrementAndGet();
+		}));
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger matches = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (memoized.orNull() == 1) {
+					matches.incrementAndGet();
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(calls.get() == 1);
+		assertTrue(matches.get() == threads.length);
+	}
+	
+	@Test
+	public void test_memoizedReset() {
+		AtomicInteger calls = new AtomicInteger();
+		Memoized<Integer> memoized = Memoized.resettable(OptionalProvider.of(() -> calls.incrementAndGet()));
+		assertTrue(memoized.orNull() == 1);
+		assertTrue(memoized.orNull() == 1);
+		memoized.reset();
+		assertFalse(memoized.isEvaluated());
+		assertTrue(memoized.orNull() == 2);
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_memoizedNotResettable() {
+		Memoized.of(OptionalProvider.of(1)).reset();
+	}
+}